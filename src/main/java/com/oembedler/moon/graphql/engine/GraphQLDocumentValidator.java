@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine;
+
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Node;
+import graphql.language.SourceLocation;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLSchema;
+import graphql.validation.ValidationError;
+import graphql.validation.ValidationErrorType;
+import graphql.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validates documents with {@link Validator}. Arguments of directives declared by the schema are checked against
+ * the directive definition, built-in rule checks them against the enclosing field and reports them as unknown.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDocumentValidator {
+
+    public List<ValidationError> validateDocument(GraphQLSchema graphQLSchema, Document document) {
+        List<ValidationError> validationErrors = new Validator().validateDocument(graphQLSchema, document);
+        if (validationErrors.isEmpty())
+            return validationErrors;
+
+        Set<SourceLocation> directiveArgumentLocations = new HashSet<>();
+        collectDirectiveArgumentLocations(graphQLSchema, document, directiveArgumentLocations);
+        if (directiveArgumentLocations.isEmpty())
+            return validationErrors;
+
+        List<ValidationError> result = new ArrayList<>(validationErrors.size());
+        for (ValidationError validationError : validationErrors) {
+            if (validationError.getValidationErrorType() == ValidationErrorType.UnknownArgument &&
+                    directiveArgumentLocations.containsAll(validationError.getLocations()))
+                continue;
+            result.add(validationError);
+        }
+        return result;
+    }
+
+    private void collectDirectiveArgumentLocations(GraphQLSchema graphQLSchema, Node node, Set<SourceLocation> directiveArgumentLocations) {
+        if (node instanceof Directive) {
+            Directive directive = (Directive) node;
+            GraphQLDirective directiveDefinition = graphQLSchema.getDirective(directive.getName());
+            if (directiveDefinition != null) {
+                for (Argument argument : directive.getArguments()) {
+                    if (directiveDefinition.getArgument(argument.getName()) != null && argument.getSourceLocation() != null)
+                        directiveArgumentLocations.add(argument.getSourceLocation());
+                }
+            }
+            return;
+        }
+        for (Node child : node.getChildren()) {
+            if (child != null)
+                collectDirectiveArgumentLocations(graphQLSchema, child, directiveArgumentLocations);
+        }
+    }
+}
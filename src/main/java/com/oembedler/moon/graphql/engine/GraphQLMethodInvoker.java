@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes data fetcher/mutator target method through a {@link MethodHandle} created once at schema build time.
+ * Falls back to {@link Method#invoke(Object, Object...)} if method handle can not be created.
+ * Exceptions thrown by the target method are wrapped into {@link InvocationTargetException}
+ * exactly as reflective invocation does.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLMethodInvoker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLMethodInvoker.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final Object targetObject;
+    private final Method targetMethod;
+    private final MethodHandle methodHandle;
+
+    public GraphQLMethodInvoker(Object targetObject, Method targetMethod) {
+        this.targetObject = targetObject;
+        this.targetMethod = targetMethod;
+        this.methodHandle = createMethodHandle(targetObject, targetMethod);
+    }
+
+    private static MethodHandle createMethodHandle(Object targetObject, Method targetMethod) {
+        try {
+            if (!Modifier.isPublic(targetMethod.getModifiers()) || !Modifier.isPublic(targetMethod.getDeclaringClass().getModifiers()))
+                targetMethod.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(targetMethod);
+            if (!Modifier.isStatic(targetMethod.getModifiers()))
+                handle = handle.bindTo(targetObject);
+            return handle.asSpreader(Object[].class, targetMethod.getParameterCount()).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOGGER.debug("Unable to create method handle for [{}], reflection is used instead", targetMethod, e);
+            return null;
+        }
+    }
+
+    public Object invoke(Object[] arguments) throws IllegalAccessException, InvocationTargetException {
+        if (methodHandle == null)
+            return targetMethod.invoke(targetObject, arguments);
+
+        if (arguments == null)
+            arguments = NO_ARGUMENTS;
+        if (arguments.length != targetMethod.getParameterCount())
+            throw new IllegalArgumentException("wrong number of arguments");
+        try {
+            return (Object) methodHandle.invokeExact(arguments);
+        } catch (ClassCastException | NullPointerException e) {
+            // argument can not be converted to parameter type - reflective invocation reports it the same way
+            if (isArgumentMismatch(arguments))
+                throw new IllegalArgumentException("argument type mismatch", e);
+            throw new InvocationTargetException(e);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private boolean isArgumentMismatch(Object[] arguments) {
+        Class<?>[] parameterTypes = targetMethod.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!ClassUtils.isAssignableValue(parameterTypes[i], arguments[i]))
+                return true;
+        }
+        return false;
+    }
+
+    public Object getTargetObject() {
+        return targetObject;
+    }
+
+    public Method getTargetMethod() {
+        return targetMethod;
+    }
+
+    public boolean isMethodHandleInvoker() {
+        return methodHandle != null;
+    }
+}
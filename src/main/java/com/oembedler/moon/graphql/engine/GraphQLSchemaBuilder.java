@@ -55,9 +55,11 @@ public class GraphQLSchemaBuilder {
                         getGraphQLSchemaConfig(),
                         graphQLSchemaDfsTraversal.getObjectTypeResolverMap());
 
+        graphQLSchemaHolder.setSubscriptionSchema(graphQLSchemaDfsTraversal.getSubscriptionSchema());
         graphQLSchemaHolder.setMutationInputTypeResolverMap(graphQLSchemaDfsTraversal.getMutationInputTypeResolverMap());
         graphQLSchemaHolder.setMutationReturnTypeResolverMap(graphQLSchemaDfsTraversal.getMutationReturnTypeResolverMap());
         graphQLSchemaHolder.setFieldDefinitionResolverMap(graphQLSchemaDfsTraversal.getFieldDefinitionResolverMap());
+        graphQLSchemaHolder.setFieldResultCacheMap(graphQLSchemaDfsTraversal.getFieldResultCacheMap());
 
         return graphQLSchemaHolder;
     }
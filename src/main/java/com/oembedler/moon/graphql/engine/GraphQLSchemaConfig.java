@@ -19,6 +19,8 @@
 
 package com.oembedler.moon.graphql.engine;
 
+import com.oembedler.moon.graphql.engine.cache.GraphQLFieldResultCacheFactory;
+import com.oembedler.moon.graphql.engine.cache.InMemoryGraphQLFieldResultCache;
 import org.springframework.util.Assert;
 
 /**
@@ -37,6 +39,11 @@ public class GraphQLSchemaConfig {
     private String schemaMutationObjectName = "Mutation";
     private boolean dateAsTimestamp = true;
     private String dateFormat = "yyyy-MM-dd'T'HH:mm'Z'";
+    private int documentCacheSize = 512;
+    private int validationCacheSize = 512;
+    private int persistedQueryCacheSize = 1024;
+    private int queryPlanCacheSize = 512;
+    private GraphQLFieldResultCacheFactory fieldResultCacheFactory = InMemoryGraphQLFieldResultCache::new;
 
     // ---
 
@@ -124,4 +131,50 @@ public class GraphQLSchemaConfig {
     public void setDateAsTimestamp(boolean dateAsTimestamp) {
         this.dateAsTimestamp = dateAsTimestamp;
     }
+
+    public int getDocumentCacheSize() {
+        return documentCacheSize;
+    }
+
+    public GraphQLSchemaConfig setDocumentCacheSize(int documentCacheSize) {
+        this.documentCacheSize = documentCacheSize;
+        return this;
+    }
+
+    public int getValidationCacheSize() {
+        return validationCacheSize;
+    }
+
+    public GraphQLSchemaConfig setValidationCacheSize(int validationCacheSize) {
+        this.validationCacheSize = validationCacheSize;
+        return this;
+    }
+
+    public int getPersistedQueryCacheSize() {
+        return persistedQueryCacheSize;
+    }
+
+    public GraphQLSchemaConfig setPersistedQueryCacheSize(int persistedQueryCacheSize) {
+        this.persistedQueryCacheSize = persistedQueryCacheSize;
+        return this;
+    }
+
+    public int getQueryPlanCacheSize() {
+        return queryPlanCacheSize;
+    }
+
+    public GraphQLSchemaConfig setQueryPlanCacheSize(int queryPlanCacheSize) {
+        this.queryPlanCacheSize = queryPlanCacheSize;
+        return this;
+    }
+
+    public GraphQLFieldResultCacheFactory getFieldResultCacheFactory() {
+        return fieldResultCacheFactory;
+    }
+
+    public GraphQLSchemaConfig setFieldResultCacheFactory(GraphQLFieldResultCacheFactory fieldResultCacheFactory) {
+        Assert.notNull(fieldResultCacheFactory, "Field result cache factory can not be null!");
+        this.fieldResultCacheFactory = fieldResultCacheFactory;
+        return this;
+    }
 }
@@ -19,25 +19,47 @@
 
 package com.oembedler.moon.graphql.engine;
 
+import com.oembedler.moon.graphql.engine.cache.GraphQLDocumentCache;
+import com.oembedler.moon.graphql.engine.cache.GraphQLFieldResultCache;
+import com.oembedler.moon.graphql.engine.cache.GraphQLLruCache;
+import com.oembedler.moon.graphql.engine.cache.GraphQLValidationCache;
 import com.oembedler.moon.graphql.engine.dfs.GraphQLFieldDefinitionWrapper;
+import com.oembedler.moon.graphql.engine.execute.GraphQLExecutionResources;
+import com.oembedler.moon.graphql.engine.execute.GraphQLQueryPlan;
+import com.oembedler.moon.graphql.engine.persisted.GraphQLPersistedQueryRegistry;
+import com.oembedler.moon.graphql.engine.persisted.InMemoryGraphQLPersistedQueryStore;
 import graphql.schema.*;
 
+import java.io.Closeable;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Holds schema together with its caches and shared execution resources, which are released by {@link #close()}
+ * (Spring calls it on bean destruction).
+ *
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
  */
-public class GraphQLSchemaHolder {
+public class GraphQLSchemaHolder implements Closeable {
 
     private final String schemaName;
     private final GraphQLSchema graphQLSchema;
     private final GraphQLSchemaConfig graphQLSchemaConfig;
+    private final GraphQLDocumentCache documentCache;
+    private final GraphQLValidationCache validationCache;
+    private GraphQLSchema subscriptionSchema;
+    private GraphQLValidationCache subscriptionValidationCache;
+    private GraphQLPersistedQueryRegistry persistedQueryRegistry;
+    private final GraphQLLruCache<GraphQLQueryPlan.Key, GraphQLQueryPlan> queryPlanCache;
 
     private final ConcurrentHashMap<Class<?>, GraphQLType> objectTypeResolverMap;
     private Map<String, Map<Class<?>, GraphQLOutputType>> mutationReturnTypeResolverMap;
     private Map<String, Map<Class<?>, GraphQLInputObjectField>> mutationInputTypeResolverMap;
     private Map<GraphQLFieldDefinition, GraphQLFieldDefinitionWrapper> fieldDefinitionResolverMap;
+    private Map<String, GraphQLFieldResultCache> fieldResultCacheMap = Collections.emptyMap();
+    private final ConcurrentHashMap<Integer, GraphQLExecutionResources> forkJoinExecutionResources = new ConcurrentHashMap<>();
+    private GraphQLExecutionResources virtualThreadExecutionResources;
 
     public GraphQLSchemaHolder(String schemaName,
                                GraphQLSchema graphQLSchema,
@@ -47,6 +69,12 @@ public class GraphQLSchemaHolder {
         this.objectTypeResolverMap = objectTypeResolverMap;
         this.graphQLSchema = graphQLSchema;
         this.graphQLSchemaConfig = graphQLSchemaConfig;
+        this.documentCache = new GraphQLDocumentCache(graphQLSchemaConfig.getDocumentCacheSize());
+        this.validationCache = new GraphQLValidationCache(graphQLSchema, graphQLSchemaConfig.getValidationCacheSize());
+        this.persistedQueryRegistry = new GraphQLPersistedQueryRegistry(graphQLSchema,
+                new InMemoryGraphQLPersistedQueryStore(graphQLSchemaConfig.getPersistedQueryCacheSize()),
+                graphQLSchemaConfig.getPersistedQueryCacheSize());
+        this.queryPlanCache = new GraphQLLruCache<>(graphQLSchemaConfig.getQueryPlanCacheSize());
     }
 
     public ConcurrentHashMap<Class<?>, GraphQLType> getObjectTypeResolverMap() {
@@ -57,6 +85,19 @@ public class GraphQLSchemaHolder {
         return graphQLSchema;
     }
 
+    /**
+     * @return schema which query root is the subscription type or <code>null</code> if schema has no subscriptions
+     */
+    public GraphQLSchema getSubscriptionSchema() {
+        return subscriptionSchema;
+    }
+
+    public void setSubscriptionSchema(GraphQLSchema subscriptionSchema) {
+        this.subscriptionSchema = subscriptionSchema;
+        this.subscriptionValidationCache = subscriptionSchema != null ?
+                new GraphQLValidationCache(subscriptionSchema, graphQLSchemaConfig.getValidationCacheSize()) : null;
+    }
+
     public Map<String, Map<Class<?>, GraphQLOutputType>> getMutationReturnTypeResolverMap() {
         return mutationReturnTypeResolverMap;
     }
@@ -81,6 +122,17 @@ public class GraphQLSchemaHolder {
         this.fieldDefinitionResolverMap = fieldDefinitionResolverMap;
     }
 
+    /**
+     * @return field result caches keyed by qualified field name (e.g. <code>User.manager</code>) to monitor hits, misses and evictions
+     */
+    public Map<String, GraphQLFieldResultCache> getFieldResultCacheMap() {
+        return fieldResultCacheMap;
+    }
+
+    public void setFieldResultCacheMap(Map<String, GraphQLFieldResultCache> fieldResultCacheMap) {
+        this.fieldResultCacheMap = Collections.unmodifiableMap(fieldResultCacheMap);
+    }
+
     public GraphQLSchemaConfig getGraphQLSchemaConfig() {
         return graphQLSchemaConfig;
     }
@@ -88,4 +140,63 @@ public class GraphQLSchemaHolder {
     public String getSchemaName() {
         return schemaName;
     }
+
+    public GraphQLDocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    public GraphQLValidationCache getValidationCache() {
+        return validationCache;
+    }
+
+    public GraphQLValidationCache getSubscriptionValidationCache() {
+        return subscriptionValidationCache;
+    }
+
+    public GraphQLPersistedQueryRegistry getPersistedQueryRegistry() {
+        return persistedQueryRegistry;
+    }
+
+    public void setPersistedQueryRegistry(GraphQLPersistedQueryRegistry persistedQueryRegistry) {
+        this.persistedQueryRegistry = persistedQueryRegistry;
+    }
+
+    public GraphQLLruCache<GraphQLQueryPlan.Key, GraphQLQueryPlan> getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
+    /**
+     * @return work-stealing pool of the given parallelism shared by all executions of this schema
+     */
+    public GraphQLExecutionResources getForkJoinExecutionResources(int parallelism) {
+        return forkJoinExecutionResources.computeIfAbsent(parallelism, GraphQLExecutionResources::workStealing);
+    }
+
+    /**
+     * @return virtual thread per task executor (or its platform threads fallback) shared by all executions of this schema
+     */
+    public synchronized GraphQLExecutionResources getVirtualThreadExecutionResources() {
+        if (virtualThreadExecutionResources == null)
+            virtualThreadExecutionResources = GraphQLExecutionResources.virtualThreadPerTask();
+        return virtualThreadExecutionResources;
+    }
+
+    /**
+     * Shuts down work-stealing and virtual thread executors created for executions of this schema.
+     */
+    @Override
+    public void close() {
+        for (Integer parallelism : forkJoinExecutionResources.keySet()) {
+            GraphQLExecutionResources executionResources = forkJoinExecutionResources.remove(parallelism);
+            if (executionResources != null)
+                executionResources.close();
+        }
+        GraphQLExecutionResources executionResources;
+        synchronized (this) {
+            executionResources = virtualThreadExecutionResources;
+            virtualThreadExecutionResources = null;
+        }
+        if (executionResources != null)
+            executionResources.close();
+    }
 }
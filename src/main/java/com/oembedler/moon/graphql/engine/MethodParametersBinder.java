@@ -20,8 +20,12 @@
 package com.oembedler.moon.graphql.engine;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oembedler.moon.graphql.engine.dfs.GraphQLMethodParameters;
+import com.oembedler.moon.graphql.engine.dfs.MethodParameters;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -33,6 +37,34 @@ public class MethodParametersBinder {
 
     private final ObjectMapper objectMapper;
     private final GraphQLMethodParameters graphQLMethodParameters;
+    private final ParameterBinding[] parameterBindings;
+
+    // ---
+
+    /**
+     * Binding plan of a single method parameter resolved once at schema build time.
+     */
+    private static final class ParameterBinding {
+        private final int idx;
+        private final String name;
+        private final boolean graphQLInParameter;
+        private final Class<?> parameterType;
+        private final JavaType javaType;
+        private final boolean environmentParameter;
+        private final boolean passThrough;
+
+        public ParameterBinding(MethodParameters.MethodParameterInfo mpi, ObjectMapper objectMapper) {
+            this.idx = mpi.getIdx();
+            this.name = mpi.getName();
+            this.graphQLInParameter = mpi.isValidGraphQLInParameter();
+            this.parameterType = mpi.isCollectionLike() ? mpi.getRawType() : mpi.getParameterType();
+            this.javaType = graphQLInParameter ? objectMapper.constructType(parameterType) : null;
+            this.environmentParameter = parameterType == DataFetchingEnvironment.class;
+            this.passThrough = parameterType != Object.class;
+        }
+    }
+
+    // ---
 
     public MethodParametersBinder(Method targetMethod, Class<?> implClass) {
         this(new GraphQLMethodParameters(targetMethod, implClass));
@@ -42,6 +74,9 @@ public class MethodParametersBinder {
         this.graphQLMethodParameters = graphQLMethodParameters;
         objectMapper = new ObjectMapper();
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.parameterBindings = graphQLMethodParameters.getParameters().stream()
+                .map(mpi -> new ParameterBinding(mpi, objectMapper))
+                .toArray(ParameterBinding[]::new);
     }
 
     public Object[] bindParameters(Map<String, Object> parametersValues) {
@@ -53,31 +88,35 @@ public class MethodParametersBinder {
     }
 
     protected Object[] bindAllParameters(Map<String, Object> parametersValues, Object[] bindByClassValues) {
-        if (getGraphQLMethodParameters().hasNoParameters())
+        if (parameterBindings.length == 0)
             return null;
 
-        final Object[] inputArgs = new Object[getGraphQLMethodParameters().getNumberOfParameters()];
-        getGraphQLMethodParameters().getParameters().forEach(mpi ->
-        {
+        final Object[] inputArgs = new Object[parameterBindings.length];
+        for (ParameterBinding parameterBinding : parameterBindings) {
             Object toMethodInputObject = null;
-            Class<?> parameterType = mpi.isCollectionLike() ? mpi.getRawType() : mpi.getParameterType();
-            if (mpi.isValidGraphQLInParameter()) {
-                Object inputObject = parametersValues.get(mpi.getName());
-
-                toMethodInputObject = getObjectMapper().convertValue(inputObject, parameterType);
-            } else {
+            if (parameterBinding.graphQLInParameter) {
+                Object inputObject = parametersValues.get(parameterBinding.name);
+                // values already having parameter type are passed through as Jackson would do
+                if (inputObject != null && !(parameterBinding.passThrough && ClassUtils.isAssignableValue(parameterBinding.parameterType, inputObject)))
+                    toMethodInputObject = getObjectMapper().convertValue(inputObject, parameterBinding.javaType);
+                else
+                    toMethodInputObject = inputObject;
+            } else if (bindByClassValues != null) {
                 // object is not registered as input parameter so trying to bind by class
-                if (bindByClassValues != null) {
+                if (parameterBinding.environmentParameter && bindByClassValues.length > 0
+                        && bindByClassValues[0] instanceof DataFetchingEnvironment) {
+                    toMethodInputObject = bindByClassValues[0];
+                } else {
                     for (Object value : bindByClassValues) {
-                        if (value != null && value.getClass().isAssignableFrom(parameterType)) {
+                        if (value != null && value.getClass().isAssignableFrom(parameterBinding.parameterType)) {
                             toMethodInputObject = value;
                             break;
                         }
                     }
                 }
             }
-            inputArgs[mpi.getIdx()] = toMethodInputObject;
-        });
+            inputArgs[parameterBinding.idx] = toMethodInputObject;
+        }
 
         return inputArgs;
     }
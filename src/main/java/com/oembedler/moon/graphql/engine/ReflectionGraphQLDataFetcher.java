@@ -19,14 +19,26 @@
 
 package com.oembedler.moon.graphql.engine;
 
+import com.oembedler.moon.graphql.engine.cache.GraphQLFieldResultCache;
 import com.oembedler.moon.graphql.engine.dfs.GraphQLMethodParameters;
+import com.oembedler.moon.graphql.engine.execute.GraphQLRequestScope;
+import com.oembedler.moon.graphql.engine.stereotype.GraphQLMemoized;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.NestedRuntimeException;
+import org.springframework.core.annotation.AnnotationUtils;
+import rx.Observable;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
@@ -34,12 +46,16 @@ import java.lang.reflect.Method;
 public class ReflectionGraphQLDataFetcher implements DataFetcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ReflectionGraphQLDataMutator.class);
+    private static final Object NULL_RESULT = new Object();
 
     private final Object targetObject;
     private final Method targetMethod;
     private final GraphQLSchemaConfig graphQLSchemaConfig;
     private final GraphQLMethodParameters graphQLMethodParameters;
     private final MethodParametersBinder methodParametersBinder;
+    private final GraphQLMethodInvoker methodInvoker;
+    private final boolean memoized;
+    private final GraphQLFieldResultCache fieldResultCache;
 
     // ---
 
@@ -52,11 +68,18 @@ public class ReflectionGraphQLDataFetcher implements DataFetcher {
     // ---
 
     public ReflectionGraphQLDataFetcher(GraphQLSchemaConfig graphQLSchemaConfig, Object targetObject, Method targetMethod) {
+        this(graphQLSchemaConfig, targetObject, targetMethod, null);
+    }
+
+    public ReflectionGraphQLDataFetcher(GraphQLSchemaConfig graphQLSchemaConfig, Object targetObject, Method targetMethod, GraphQLFieldResultCache fieldResultCache) {
         this.targetObject = targetObject;
         this.targetMethod = targetMethod;
         this.graphQLSchemaConfig = graphQLSchemaConfig;
         this.graphQLMethodParameters = new GraphQLMethodParameters(targetMethod, this.targetObject.getClass());
         this.methodParametersBinder = new MethodParametersBinder(this.graphQLMethodParameters);
+        this.methodInvoker = new GraphQLMethodInvoker(this.targetObject, this.targetMethod);
+        this.memoized = AnnotationUtils.findAnnotation(targetMethod, GraphQLMemoized.class) != null;
+        this.fieldResultCache = fieldResultCache;
     }
 
     @Override
@@ -71,7 +94,10 @@ public class ReflectionGraphQLDataFetcher implements DataFetcher {
             if (isAllNulls(inputArguments) && canApplySourceObject(environment)) {
                 inputArguments = new Object[]{environment.getSource()};
             }
-            targetMethodResult = getTargetMethod().invoke(getTargetObject(), inputArguments);
+            if (getFieldResultCache() != null)
+                targetMethodResult = invokeCached(environment, inputArguments);
+            else
+                targetMethodResult = invokeTarget(environment, inputArguments);
 
             targetMethodResult = afterInvocation(environment, targetMethodResult);
 
@@ -85,6 +111,86 @@ public class ReflectionGraphQLDataFetcher implements DataFetcher {
         return targetMethodResult;
     }
 
+    protected Object invokeTarget(DataFetchingEnvironment environment, Object[] inputArguments) throws Exception {
+        return isMemoized() ? invokeMemoized(environment, inputArguments) : getMethodInvoker().invoke(inputArguments);
+    }
+
+    protected Object invokeCached(DataFetchingEnvironment environment, Object[] inputArguments) throws Exception {
+        final GraphQLFieldResultCache fieldResultCache = getFieldResultCache();
+        final List<Object> cacheKey = createCacheKey(environment, inputArguments);
+        Object result = fieldResultCache.get(cacheKey);
+        if (result != null && isFailedFuture(result)) {
+            // failed future completed after it was cached, it is not replayed to other requests
+            fieldResultCache.remove(cacheKey, result);
+            result = null;
+        }
+        if (result == null) {
+            result = invokeTarget(environment, inputArguments);
+            if (result == null) {
+                fieldResultCache.put(cacheKey, NULL_RESULT);
+                return null;
+            }
+            result = evictOnError(fieldResultCache, cacheKey, result);
+            fieldResultCache.put(cacheKey, result);
+        }
+        return result == NULL_RESULT ? null : result;
+    }
+
+    /**
+     * Asynchronous result is removed from the cache once it fails, so a transient error is not kept for the whole time to live.
+     */
+    protected Object evictOnError(GraphQLFieldResultCache fieldResultCache, List<Object> cacheKey, Object result) {
+        if (result instanceof Observable) {
+            final AtomicReference<Object> cachedResult = new AtomicReference<>();
+            cachedResult.set(((Observable<?>) result)
+                    .doOnError(e -> fieldResultCache.remove(cacheKey, cachedResult.get()))
+                    .cache());
+            return cachedResult.get();
+        }
+        if (result instanceof CompletionStage) {
+            final Object cachedResult = result;
+            ((CompletionStage<?>) result).whenComplete((value, throwable) -> {
+                if (throwable != null)
+                    fieldResultCache.remove(cacheKey, cachedResult);
+            });
+        }
+        return result;
+    }
+
+    protected static boolean isFailedFuture(Object result) {
+        if (!(result instanceof Future) || !((Future<?>) result).isDone())
+            return false;
+        try {
+            ((Future<?>) result).get();
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /**
+     * Key consists of the source object and bound arguments, so the source should implement <code>equals</code>
+     * and <code>hashCode</code> for results to be shared between requests.
+     */
+    protected List<Object> createCacheKey(DataFetchingEnvironment environment, Object[] inputArguments) {
+        // environment differs on every call and is never a part of a key
+        int length = inputArguments != null ? inputArguments.length : 0;
+        Object[] keyValues = new Object[length + 1];
+        keyValues[0] = environment.getSource();
+        for (int i = 0; i < length; i++)
+            keyValues[i + 1] = inputArguments[i] instanceof DataFetchingEnvironment ? null : inputArguments[i];
+        return Arrays.asList(keyValues);
+    }
+
+    protected Object invokeMemoized(DataFetchingEnvironment environment, Object[] inputArguments) throws Exception {
+        MemoizationKey memoizationKey = new MemoizationKey(getTargetMethod(), environment.getSource(), environment.getArguments());
+        return GraphQLRequestScope.from(environment).memoize(memoizationKey, () -> {
+            Object result = getMethodInvoker().invoke(inputArguments);
+            // cold observables would otherwise be re-evaluated by every subscriber
+            return result instanceof Observable ? ((Observable<?>) result).cache() : result;
+        });
+    }
+
     public Object[] collectBindByClassValues(DataFetchingEnvironment environment) {
         Object[] bindByClassValues = new Object[]{environment, environment.getSource(), environment.getContext()};
         return bindByClassValues;
@@ -113,6 +219,14 @@ public class ReflectionGraphQLDataFetcher implements DataFetcher {
         return targetMethodResult;
     }
 
+    public boolean isMemoized() {
+        return memoized;
+    }
+
+    public GraphQLFieldResultCache getFieldResultCache() {
+        return fieldResultCache;
+    }
+
     public GraphQLMethodParameters getGraphQLMethodParameters() {
         return graphQLMethodParameters;
     }
@@ -121,6 +235,10 @@ public class ReflectionGraphQLDataFetcher implements DataFetcher {
         return methodParametersBinder;
     }
 
+    public GraphQLMethodInvoker getMethodInvoker() {
+        return methodInvoker;
+    }
+
     public Method getTargetMethod() {
         return targetMethod;
     }
@@ -128,4 +246,31 @@ public class ReflectionGraphQLDataFetcher implements DataFetcher {
     public Object getTargetObject() {
         return targetObject;
     }
+
+    // ---
+
+    private static final class MemoizationKey {
+        private final Method method;
+        private final Object source;
+        private final Map<String, Object> arguments;
+
+        MemoizationKey(Method method, Object source, Map<String, Object> arguments) {
+            this.method = method;
+            this.source = source;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MemoizationKey)) return false;
+            MemoizationKey that = (MemoizationKey) o;
+            return method.equals(that.method) && source == that.source && Objects.equals(arguments, that.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * method.hashCode() + System.identityHashCode(source)) + Objects.hashCode(arguments);
+        }
+    }
 }
@@ -42,6 +42,7 @@ public class ReflectionGraphQLDataMutator implements DataFetcher {
     private final GraphQLSchemaConfig graphQLSchemaConfig;
     private final GraphQLMethodParameters graphQLMethodParameters;
     private final MethodParametersBinder methodParametersBinder;
+    private final GraphQLMethodInvoker methodInvoker;
 
     // ---
 
@@ -59,6 +60,7 @@ public class ReflectionGraphQLDataMutator implements DataFetcher {
         this.graphQLSchemaConfig = graphQLSchemaConfig;
         this.graphQLMethodParameters = new GraphQLMethodParameters(targetMethod, this.targetObject.getClass());
         this.methodParametersBinder = new MethodParametersBinder(this.graphQLMethodParameters);
+        this.methodInvoker = new GraphQLMethodInvoker(this.targetObject, this.targetMethod);
     }
 
     @Override
@@ -70,7 +72,7 @@ public class ReflectionGraphQLDataMutator implements DataFetcher {
 
             Object[] bindByClassValues = collectBindByClassValues(environment);
             Object[] inputArguments = getMethodParametersBinder().bindParameters(unwrapInputArguments(environment), bindByClassValues);
-            targetMethodResult = getTargetMethod().invoke(getTargetObject(), inputArguments);
+            targetMethodResult = getMethodInvoker().invoke(inputArguments);
 
             targetMethodResult = afterInvocation(environment, targetMethodResult);
 
@@ -127,6 +129,10 @@ public class ReflectionGraphQLDataMutator implements DataFetcher {
         return methodParametersBinder;
     }
 
+    public GraphQLMethodInvoker getMethodInvoker() {
+        return methodInvoker;
+    }
+
     public Method getTargetMethod() {
         return targetMethod;
     }
@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.batch;
+
+import rx.Observable;
+import rx.subjects.AsyncSubject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request scoped front of a {@link GraphQLBatchLoader}. Keys requested with {@link #load(Object)} are queued
+ * and dispatched as a single batch once any of the returned observables is subscribed.
+ * Same key requested twice within a request is loaded once.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDataLoader<K, V> {
+
+    private final GraphQLBatchLoader<K, V> batchLoader;
+    private final GraphQLDataLoaderRegistry dataLoaderRegistry;
+    private final Map<K, AsyncSubject<V>> values = new HashMap<>();
+    private List<K> pendingKeys = new ArrayList<>();
+
+    GraphQLDataLoader(GraphQLBatchLoader<K, V> batchLoader, GraphQLDataLoaderRegistry dataLoaderRegistry) {
+        this.batchLoader = batchLoader;
+        this.dataLoaderRegistry = dataLoaderRegistry;
+    }
+
+    public Observable<V> load(K key) {
+        AsyncSubject<V> value;
+        synchronized (this) {
+            value = values.get(key);
+            if (value == null) {
+                value = AsyncSubject.create();
+                values.put(key, value);
+                pendingKeys.add(key);
+            }
+        }
+        final AsyncSubject<V> result = value;
+        return Observable.defer(() -> {
+            dataLoaderRegistry.dispatch();
+            return result;
+        });
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingKeys.size();
+    }
+
+    void dispatch() {
+        List<K> keys;
+        synchronized (this) {
+            if (pendingKeys.isEmpty())
+                return;
+            keys = pendingKeys;
+            pendingKeys = new ArrayList<>();
+        }
+
+        int maxBatchSize = batchLoader.getMaxBatchSize() > 0 ? batchLoader.getMaxBatchSize() : keys.size();
+        for (int from = 0; from < keys.size(); from += maxBatchSize) {
+            dispatchBatch(keys.subList(from, Math.min(from + maxBatchSize, keys.size())));
+        }
+    }
+
+    private void dispatchBatch(List<K> keys) {
+        List<V> loadedValues;
+        try {
+            loadedValues = batchLoader.load(keys);
+            if (loadedValues == null || loadedValues.size() != keys.size())
+                throw new IllegalStateException("Batch loader must return exactly one value per key. Keys [" +
+                        keys.size() + "]. Values [" + (loadedValues == null ? null : loadedValues.size()) + "]");
+        } catch (RuntimeException e) {
+            for (K key : keys)
+                getValue(key).onError(e);
+            return;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            AsyncSubject<V> value = getValue(keys.get(i));
+            value.onNext(loadedValues.get(i));
+            value.onCompleted();
+        }
+    }
+
+    private synchronized AsyncSubject<V> getValue(K key) {
+        return values.get(key);
+    }
+
+    public GraphQLBatchLoader<K, V> getBatchLoader() {
+        return batchLoader;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.batch;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds data loaders of a single request and dispatches their pending keys.
+ * Keys queued while results of a previous batch are fanned out (next execution level)
+ * are dispatched together right after the fan-out instead of one by one.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDataLoaderRegistry {
+
+    private final ConcurrentHashMap<GraphQLBatchLoader<?, ?>, GraphQLDataLoader<?, ?>> dataLoaders = new ConcurrentHashMap<>();
+    private boolean dispatching;
+    private boolean dispatchRequested;
+
+    @SuppressWarnings("unchecked")
+    public <K, V> GraphQLDataLoader<K, V> getDataLoader(GraphQLBatchLoader<K, V> batchLoader) {
+        // data loader is always created for the batch loader it is keyed by, so it has the same key and value types
+        return (GraphQLDataLoader<K, V>) dataLoaders.computeIfAbsent(batchLoader, key -> new GraphQLDataLoader<>(batchLoader, this));
+    }
+
+    public void dispatch() {
+        synchronized (this) {
+            if (dispatching) {
+                dispatchRequested = true;
+                return;
+            }
+            dispatching = true;
+        }
+
+        boolean dispatchAgain = true;
+        try {
+            while (dispatchAgain) {
+                for (GraphQLDataLoader<?, ?> dataLoader : dataLoaders.values())
+                    dataLoader.dispatch();
+                synchronized (this) {
+                    dispatchAgain = dispatchRequested;
+                    dispatchRequested = false;
+                    if (!dispatchAgain)
+                        dispatching = false;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                dispatching = false;
+            }
+        }
+    }
+}
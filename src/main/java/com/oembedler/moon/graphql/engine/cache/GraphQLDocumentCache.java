@@ -0,0 +1,52 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.cache;
+
+import graphql.language.Document;
+import graphql.parser.Parser;
+
+/**
+ * Parsed query documents keyed by the request query text.
+ * Shared by all executors created for the same schema holder.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDocumentCache extends GraphQLLruCache<String, Document> {
+
+    public GraphQLDocumentCache(final int maxSize) {
+        super(maxSize);
+    }
+
+    /**
+     * Returns cached document or parses the query and caches the result.
+     * Parsing errors are propagated as-is and never cached.
+     *
+     * @param requestQuery query text
+     * @return parsed document
+     */
+    public Document getDocument(final String requestQuery) {
+        Document document = get(requestQuery);
+        if (document == null) {
+            document = new Parser().parseDocument(requestQuery);
+            put(requestQuery, document);
+        }
+        return document;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.cache;
+
+/**
+ * Cache of field results shared by all executions of a schema.
+ * One instance is created per field marked with {@link com.oembedler.moon.graphql.engine.stereotype.GraphQLCached}
+ * by {@link GraphQLFieldResultCacheFactory}.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public interface GraphQLFieldResultCache {
+
+    /**
+     * @return cached value or null if there is no live entry for the key
+     */
+    Object get(Object key);
+
+    void put(Object key, Object value);
+
+    /**
+     * Removes entry only if it is still mapped to the given value, e.g. a result which failed after it was cached.
+     *
+     * @return true if the entry was removed
+     */
+    boolean remove(Object key, Object value);
+
+    void clear();
+
+    int size();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    long getEvictionCount();
+}
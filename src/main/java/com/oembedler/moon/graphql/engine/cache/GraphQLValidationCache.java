@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.cache;
+
+import com.oembedler.moon.graphql.engine.GraphQLDocumentValidator;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import graphql.validation.ValidationError;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validation outcomes (success as well as the error list) of query documents against a single schema.
+ * Documents are compared by identity, so repeated requests benefit when documents
+ * come from {@link GraphQLDocumentCache}.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLValidationCache extends GraphQLLruCache<Document, List<ValidationError>> {
+
+    private final GraphQLSchema graphQLSchema;
+
+    public GraphQLValidationCache(final GraphQLSchema graphQLSchema, final int maxSize) {
+        super(maxSize);
+        Assert.notNull(graphQLSchema, "GraphQL schema can not be null");
+        this.graphQLSchema = graphQLSchema;
+    }
+
+    /**
+     * Returns cached validation outcome or validates document and caches the result.
+     *
+     * @param document parsed query document
+     * @return unmodifiable list of validation errors, empty when document is valid
+     */
+    public List<ValidationError> validate(final Document document) {
+        List<ValidationError> validationErrors = get(document);
+        if (validationErrors == null) {
+            validationErrors = Collections.unmodifiableList(new GraphQLDocumentValidator().validateDocument(graphQLSchema, document));
+            put(document, validationErrors);
+        }
+        return validationErrors;
+    }
+
+    public GraphQLSchema getGraphQLSchema() {
+        return graphQLSchema;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe least-recently-used cache which entries expire after a fixed time to live.
+ * Expired entries are evicted lazily and counted as evictions.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class InMemoryGraphQLFieldResultCache implements GraphQLFieldResultCache {
+
+    private final String fieldName;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<Object, CachedResult> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public InMemoryGraphQLFieldResultCache(final String fieldName, final long ttlMillis, final int maxSize) {
+        this.fieldName = fieldName;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Object, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedResult> eldest) {
+                boolean evict = size() > InMemoryGraphQLFieldResultCache.this.maxSize;
+                if (evict)
+                    evictionCount.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    @Override
+    public Object get(final Object key) {
+        Object value = null;
+        if (isEnabled()) {
+            long now = currentTimeMillis();
+            synchronized (entries) {
+                CachedResult entry = entries.get(key);
+                if (entry != null) {
+                    if (entry.expiresAt > now) {
+                        value = entry.value;
+                    } else {
+                        entries.remove(key);
+                        evictionCount.incrementAndGet();
+                    }
+                }
+            }
+        }
+        if (value != null)
+            hitCount.incrementAndGet();
+        else
+            missCount.incrementAndGet();
+        return value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        if (isEnabled() && key != null && value != null) {
+            long expiresAt = currentTimeMillis() + ttlMillis;
+            synchronized (entries) {
+                entries.put(key, new CachedResult(value, expiresAt));
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value) {
+        synchronized (entries) {
+            CachedResult entry = entries.get(key);
+            if (entry != null && entry.value == value) {
+                entries.remove(key);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Removes all expired entries, e.g. could be scheduled to release memory held by rarely requested keys.
+     */
+    public void evictExpired() {
+        long now = currentTimeMillis();
+        synchronized (entries) {
+            Iterator<CachedResult> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt <= now) {
+                    iterator.remove();
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static final class CachedResult {
+        private final Object value;
+        private final long expiresAt;
+
+        CachedResult(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.dfs;
+
+import java.util.function.Function;
+
+/**
+ * Evaluator for simple arithmetic SpEL expressions made of number literals, <code>#variables</code>,
+ * <code>+ - * / %</code> operators and parentheses (e.g. <code>1 + #first * #childScore</code>).
+ * Numeric promotion follows SpEL operators: integers stay integers, longs widen integers, anything else is a double.
+ * Whenever evaluation can not be done the same way SpEL would do it <code>null</code> is returned
+ * and caller is expected to fall back to SpEL.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class ArithmeticComplexityExpression {
+
+    private final Node root;
+
+    private ArithmeticComplexityExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return compiled expression or <code>null</code> if expression is not a simple arithmetic one
+     */
+    public static ArithmeticComplexityExpression parse(String expression) {
+        try {
+            Parser parser = new Parser(expression);
+            Node root = parser.parseExpression();
+            parser.skipWhitespaces();
+            return parser.position == expression.length() ? new ArithmeticComplexityExpression(root) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Number evaluate(Function<String, Object> variables) {
+        try {
+            return root.evaluate(variables);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private interface Node {
+        Number evaluate(Function<String, Object> variables);
+    }
+
+    private static class Literal implements Node {
+        private final Number value;
+
+        public Literal(Number value) {
+            this.value = value;
+        }
+
+        @Override
+        public Number evaluate(Function<String, Object> variables) {
+            return value;
+        }
+    }
+
+    private static class Variable implements Node {
+        private final String name;
+
+        public Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Number evaluate(Function<String, Object> variables) {
+            Object value = variables.apply(name);
+            if (value instanceof Integer || value instanceof Long || value instanceof Double)
+                return (Number) value;
+            if (value instanceof Short || value instanceof Byte)
+                return ((Number) value).intValue();
+            throw new IllegalArgumentException("Unsupported variable value");
+        }
+    }
+
+    private static class Negate implements Node {
+        private final Node operand;
+
+        public Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public Number evaluate(Function<String, Object> variables) {
+            Number value = operand.evaluate(variables);
+            if (value instanceof Integer)
+                return -value.intValue();
+            if (value instanceof Long)
+                return -value.longValue();
+            return -value.doubleValue();
+        }
+    }
+
+    private static class Operation implements Node {
+        private final char operator;
+        private final Node left;
+        private final Node right;
+
+        public Operation(char operator, Node left, Node right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Number evaluate(Function<String, Object> variables) {
+            Number l = left.evaluate(variables);
+            Number r = right.evaluate(variables);
+            if (l instanceof Double || r instanceof Double) {
+                double a = l.doubleValue(), b = r.doubleValue();
+                switch (operator) {
+                    case '+': return a + b;
+                    case '-': return a - b;
+                    case '*': return a * b;
+                    case '/': return a / b;
+                    default: return a % b;
+                }
+            }
+            if (l instanceof Long || r instanceof Long) {
+                long a = l.longValue(), b = r.longValue();
+                switch (operator) {
+                    case '+': return a + b;
+                    case '-': return a - b;
+                    case '*': return a * b;
+                    case '/': return a / b;
+                    default: return a % b;
+                }
+            }
+            int a = l.intValue(), b = r.intValue();
+            switch (operator) {
+                case '+': return a + b;
+                case '-': return a - b;
+                case '*': return a * b;
+                case '/': return a / b;
+                default: return a % b;
+            }
+        }
+    }
+
+    private static class Parser {
+        private final String expression;
+        private int position;
+
+        public Parser(String expression) {
+            this.expression = expression;
+        }
+
+        public Node parseExpression() {
+            Node node = parseTerm();
+            while (peek('+') || peek('-')) {
+                char operator = expression.charAt(position++);
+                node = new Operation(operator, node, parseTerm());
+            }
+            return node;
+        }
+
+        private Node parseTerm() {
+            Node node = parseUnary();
+            while (peek('*') || peek('/') || peek('%')) {
+                char operator = expression.charAt(position++);
+                node = new Operation(operator, node, parseUnary());
+            }
+            return node;
+        }
+
+        private Node parseUnary() {
+            if (peek('-')) {
+                position++;
+                return new Negate(parseUnary());
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            if (peek('(')) {
+                position++;
+                Node node = parseExpression();
+                if (!peek(')'))
+                    throw new IllegalArgumentException("Closing parenthesis expected");
+                position++;
+                return node;
+            }
+            if (peek('#')) {
+                int start = ++position;
+                while (position < expression.length() && Character.isJavaIdentifierPart(expression.charAt(position)))
+                    position++;
+                String name = expression.substring(start, position);
+                if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) || "root".equals(name) || "this".equals(name))
+                    throw new IllegalArgumentException("Unsupported variable");
+                return new Variable(name);
+            }
+            skipWhitespaces();
+            int start = position;
+            while (position < expression.length() && Character.isDigit(expression.charAt(position)))
+                position++;
+            if (start == position)
+                throw new IllegalArgumentException("Number expected");
+            boolean real = false;
+            if (position + 1 < expression.length() && expression.charAt(position) == '.' && Character.isDigit(expression.charAt(position + 1))) {
+                real = true;
+                position++;
+                while (position < expression.length() && Character.isDigit(expression.charAt(position)))
+                    position++;
+            }
+            if (position < expression.length() && Character.isLetter(expression.charAt(position)))
+                throw new IllegalArgumentException("Unsupported literal");
+            String literal = expression.substring(start, position);
+            return new Literal(real ? (Number) Double.valueOf(literal) : (Number) Integer.valueOf(literal));
+        }
+
+        private boolean peek(char c) {
+            skipWhitespaces();
+            return position < expression.length() && expression.charAt(position) == c;
+        }
+
+        private void skipWhitespaces() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position)))
+                position++;
+        }
+    }
+}
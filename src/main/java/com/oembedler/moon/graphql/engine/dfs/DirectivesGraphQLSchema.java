@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.dfs;
+
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Schema declaring additional directives next to built-in <code>@include</code> and <code>@skip</code>
+ * so they pass validation and are exposed through introspection.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class DirectivesGraphQLSchema extends GraphQLSchema {
+
+    private volatile List<GraphQLDirective> directives;
+    private final List<GraphQLDirective> additionalDirectives;
+
+    public DirectivesGraphQLSchema(GraphQLObjectType queryType, GraphQLObjectType mutationType, Set<GraphQLType> dictionary,
+                                   List<GraphQLDirective> additionalDirectives) {
+        super(queryType, mutationType, dictionary);
+        this.additionalDirectives = additionalDirectives;
+    }
+
+    /**
+     * @param graphQLSchema built schema whose type references are already replaced
+     */
+    public static GraphQLSchema create(GraphQLSchema graphQLSchema, List<GraphQLDirective> additionalDirectives) {
+        return new DirectivesGraphQLSchema(graphQLSchema.getQueryType(), graphQLSchema.getMutationType(), graphQLSchema.getDictionary(), additionalDirectives);
+    }
+
+    /**
+     * Subscription documents are parsed as queries, so subscription type becomes query root of a schema
+     * sharing all types of the given one.
+     *
+     * @param graphQLSchema built schema whose type references are already replaced
+     */
+    public static GraphQLSchema createSubscriptionSchema(GraphQLSchema graphQLSchema, GraphQLObjectType subscriptionType,
+                                                         List<GraphQLDirective> additionalDirectives) {
+        return new DirectivesGraphQLSchema(subscriptionType, null, new HashSet<>(graphQLSchema.getAllTypesAsList()), additionalDirectives);
+    }
+
+    @Override
+    public List<GraphQLDirective> getDirectives() {
+        // super constructor traverses the schema before additional directives are assigned
+        if (additionalDirectives == null)
+            return super.getDirectives();
+        if (directives == null) {
+            List<GraphQLDirective> allDirectives = new ArrayList<>(super.getDirectives());
+            allDirectives.addAll(additionalDirectives);
+            directives = allDirectives;
+        }
+        return directives;
+    }
+}
@@ -19,28 +19,59 @@
 
 package com.oembedler.moon.graphql.engine.dfs;
 
+import com.oembedler.moon.graphql.GraphQLConstants;
 import graphql.schema.GraphQLFieldDefinition;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.*;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
  */
 public class GraphQLFieldDefinitionWrapper {
 
-    private static final ExpressionParser SPEL_EXPRESSION_PARSER = new SpelExpressionParser();
+    private static final ExpressionParser SPEL_EXPRESSION_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, GraphQLFieldDefinitionWrapper.class.getClassLoader()));
+    private static final StandardEvaluationContext SHARED_EVALUATION_CONTEXT = createSharedEvaluationContext();
 
     private final GraphQLFieldDefinition graphQLFieldDefinition;
     private final String complexitySpelExpressionString;
     private final Expression complexitySpelExpression;
+    private final ArithmeticComplexityExpression arithmeticComplexityExpression;
+    private final long timeoutMillis;
 
     public GraphQLFieldDefinitionWrapper(GraphQLFieldDefinition graphQLFieldDefinition, String complexitySpelExpressionString) {
+        this(graphQLFieldDefinition, complexitySpelExpressionString, 0);
+    }
+
+    /**
+     * @param timeoutMillis maximum time to resolve the field, not positive value means no field timeout
+     */
+    public GraphQLFieldDefinitionWrapper(GraphQLFieldDefinition graphQLFieldDefinition, String complexitySpelExpressionString, long timeoutMillis) {
         this.graphQLFieldDefinition = graphQLFieldDefinition;
+        this.timeoutMillis = timeoutMillis;
         this.complexitySpelExpressionString = complexitySpelExpressionString;
         this.complexitySpelExpression = StringUtils.hasText(this.complexitySpelExpressionString) ?
                 SPEL_EXPRESSION_PARSER.parseExpression(this.complexitySpelExpressionString) : null;
+        this.arithmeticComplexityExpression = this.complexitySpelExpression != null ?
+                ArithmeticComplexityExpression.parse(this.complexitySpelExpressionString) : null;
+    }
+
+    private static StandardEvaluationContext createSharedEvaluationContext() {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        // initialize lazily created resolvers upfront so the context can be shared between threads
+        context.getConstructorResolvers();
+        context.getMethodResolvers();
+        context.getPropertyAccessors();
+        context.getTypeLocator();
+        return context;
     }
 
     public GraphQLFieldDefinition getGraphQLFieldDefinition() {
@@ -54,4 +85,95 @@ public class GraphQLFieldDefinitionWrapper {
     public Expression getComplexitySpelExpression() {
         return complexitySpelExpression;
     }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public Double evaluateComplexity(Double childScore, Map<String, Object> argumentValues) {
+        ComplexityEvaluationContext context = new ComplexityEvaluationContext(childScore, argumentValues);
+        if (arithmeticComplexityExpression != null) {
+            Number complexity = arithmeticComplexityExpression.evaluate(context::lookupVariable);
+            if (complexity != null)
+                return complexity.doubleValue();
+        }
+        return complexitySpelExpression.getValue(context, Double.class);
+    }
+
+    /**
+     * Per evaluation context exposing <code>childScore</code> and field arguments as variables
+     * without copying them, everything else is delegated to a shared context.
+     */
+    private static class ComplexityEvaluationContext implements EvaluationContext {
+
+        private final Double childScore;
+        private final Map<String, Object> argumentValues;
+        private Map<String, Object> variables;
+
+        public ComplexityEvaluationContext(Double childScore, Map<String, Object> argumentValues) {
+            this.childScore = childScore;
+            this.argumentValues = argumentValues;
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return SHARED_EVALUATION_CONTEXT.getRootObject();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return SHARED_EVALUATION_CONTEXT.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return SHARED_EVALUATION_CONTEXT.getMethodResolvers();
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return SHARED_EVALUATION_CONTEXT.getPropertyAccessors();
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return SHARED_EVALUATION_CONTEXT.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return SHARED_EVALUATION_CONTEXT.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return SHARED_EVALUATION_CONTEXT.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return SHARED_EVALUATION_CONTEXT.getOperatorOverloader();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return SHARED_EVALUATION_CONTEXT.getBeanResolver();
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            if (variables == null)
+                variables = new HashMap<>();
+            variables.put(name, value);
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            if (variables != null && variables.containsKey(name))
+                return variables.get(name);
+            if (argumentValues != null && argumentValues.containsKey(name))
+                return argumentValues.get(name);
+            return GraphQLConstants.EXECUTION_COMPLEXITY_CHILD_SCORE.equals(name) ? childScore : null;
+        }
+    }
 }
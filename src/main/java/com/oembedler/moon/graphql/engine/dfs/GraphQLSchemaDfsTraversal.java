@@ -23,8 +23,12 @@ import com.google.common.collect.Lists;
 import com.oembedler.moon.graphql.GraphQLConstants;
 import com.oembedler.moon.graphql.GraphQLSchemaBeanFactory;
 import com.oembedler.moon.graphql.engine.*;
+import com.oembedler.moon.graphql.engine.cache.GraphQLFieldResultCache;
+import com.oembedler.moon.graphql.engine.execute.GraphQLDirectives;
+import com.oembedler.moon.graphql.engine.stereotype.GraphQLCached;
 import com.oembedler.moon.graphql.engine.stereotype.GraphQLInterface;
 import com.oembedler.moon.graphql.engine.stereotype.GraphQLSchemaQuery;
+import com.oembedler.moon.graphql.engine.stereotype.GraphQLSubscription;
 import com.oembedler.moon.graphql.engine.type.GraphQLEnumTypeExt;
 import graphql.Scalars;
 import graphql.schema.*;
@@ -32,6 +36,7 @@ import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.NestedRuntimeException;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
@@ -76,6 +81,8 @@ public class GraphQLSchemaDfsTraversal {
     private final Map<String, Map<Class<?>, GraphQLInputObjectField>> mutationInputTypeResolverMap;
     private final Map<GraphQLFieldDefinition, GraphQLFieldDefinitionWrapper> fieldDefinitionResolverMap;
     private final Set<GraphQLUnionType> graphQLUnionTypeMap;
+    private final Map<String, GraphQLFieldResultCache> fieldResultCacheMap;
+    private GraphQLSchema subscriptionSchema;
 
     // ---
 
@@ -91,6 +98,7 @@ public class GraphQLSchemaDfsTraversal {
         this.mutationInputTypeResolverMap = new LinkedHashMap<>();
         this.fieldDefinitionResolverMap = new LinkedHashMap<>();
         this.graphQLUnionTypeMap = new HashSet<>();
+        this.fieldResultCacheMap = new LinkedHashMap<>();
     }
 
     public GraphQLSchema traverse() {
@@ -99,12 +107,19 @@ public class GraphQLSchemaDfsTraversal {
         DfsContext dfsContext = new DfsContext();
         GraphQLObjectType graphQLRootQueryObjectType = (GraphQLObjectType) findSchemaQueryRoot(dfsContext, schemaClass);
         GraphQLObjectType graphQLMutationObjectType = findSchemaMutations(dfsContext, schemaClass);
-        GraphQLSchema graphQLSchema =
+        GraphQLObjectType graphQLSubscriptionObjectType = findSchemaSubscriptionRoot(dfsContext, schemaClass);
+        // subscription root is registered as an additional type so its type references are replaced along with others
+        Set<GraphQLType> dictionary = graphQLSubscriptionObjectType != null ?
+                Collections.singleton(graphQLSubscriptionObjectType) : Collections.emptySet();
+        GraphQLSchema graphQLSchema = DirectivesGraphQLSchema.create(
                 newSchema()
                         .query(graphQLRootQueryObjectType)
                         .mutation(graphQLMutationObjectType)
-                        .build();
+                        .build(dictionary),
+                GraphQLDirectives.getDirectives());
         SchemaHelper.replaceTypeReferencesForUnionType(graphQLSchema, graphQLUnionTypeMap);
+        if (graphQLSubscriptionObjectType != null)
+            subscriptionSchema = DirectivesGraphQLSchema.createSubscriptionSchema(graphQLSchema, graphQLSubscriptionObjectType, GraphQLDirectives.getDirectives());
         return graphQLSchema;
     }
 
@@ -120,6 +135,17 @@ public class GraphQLSchemaDfsTraversal {
         return createGraphQLObjectTypeRecursively(dfsContext, fields.iterator().next().getType());
     }
 
+    @SuppressWarnings("unchecked")
+    public GraphQLObjectType findSchemaSubscriptionRoot(DfsContext dfsContext, Class<?> classSchema) {
+        Set<Field> fields = ReflectionUtils.getAllFields(classSchema,
+                ReflectionUtils.withAnnotation(GraphQLSubscription.class));
+
+        if (fields.size() == 0)
+            return null;
+
+        return (GraphQLObjectType) createGraphQLObjectTypeRecursively(dfsContext, fields.iterator().next().getType());
+    }
+
     public GraphQLType createGraphQLObjectTypeRecursively(DfsContext dfsContext, final Class<?> implClass) {
 
         ResolvableTypeAccessor resolvableTypeAccessor = ResolvableTypeAccessor.forClass(implClass);
@@ -264,16 +290,30 @@ public class GraphQLSchemaDfsTraversal {
             if (!objectClass.isInterface()) {
                 String beanName = objectClass.getName() + resolvableTypeAccessor.getName();
                 Object object = getGraphQLSchemaBeanFactory().getBeanByType(objectClass);
-                builder.dataFetcher(new ReflectionGraphQLDataFetcher(getGraphQLSchemaConfig(), object, method));
+                GraphQLFieldResultCache fieldResultCache = createFieldResultCache(objectClass, resolvableTypeAccessor.getName(), method);
+                builder.dataFetcher(new ReflectionGraphQLDataFetcher(getGraphQLSchemaConfig(), object, method, fieldResultCache));
             }
             graphQLFieldDefinition = builder.build();
 
-            addToFieldDefinitionResolverMap(dfsContext, graphQLFieldDefinition, resolvableTypeAccessor.getGraphQLComplexitySpelExpression());
+            addToFieldDefinitionResolverMap(dfsContext, graphQLFieldDefinition, resolvableTypeAccessor.getGraphQLComplexitySpelExpression(),
+                    resolvableTypeAccessor.getGraphQLTimeoutMillis());
         }
 
         return graphQLFieldDefinition;
     }
 
+    public GraphQLFieldResultCache createFieldResultCache(Class<?> objectClass, String fieldName, Method method) {
+        GraphQLCached graphQLCached = AnnotationUtils.findAnnotation(method, GraphQLCached.class);
+        if (graphQLCached == null)
+            return null;
+
+        String qualifiedFieldName = objectTypeNameReferenceMap.getOrDefault(objectClass, objectClass.getSimpleName()) + "." + fieldName;
+        GraphQLFieldResultCache fieldResultCache = getGraphQLSchemaConfig().getFieldResultCacheFactory()
+                .create(qualifiedFieldName, graphQLCached.timeUnit().toMillis(graphQLCached.ttl()), graphQLCached.maxSize());
+        fieldResultCacheMap.put(qualifiedFieldName, fieldResultCache);
+        return fieldResultCache;
+    }
+
     public GraphQLFieldDefinition getFieldDefinition(DfsContext dfsContext, Class<?> implClass, Field field) {
 
         GraphQLFieldDefinition graphQLFieldDefinition = null;
@@ -300,8 +340,12 @@ public class GraphQLSchemaDfsTraversal {
     }
 
     public void addToFieldDefinitionResolverMap(DfsContext dfsContext, GraphQLFieldDefinition graphQLFieldDefinition, String complexitySpelExpression) {
+        addToFieldDefinitionResolverMap(dfsContext, graphQLFieldDefinition, complexitySpelExpression, 0);
+    }
+
+    public void addToFieldDefinitionResolverMap(DfsContext dfsContext, GraphQLFieldDefinition graphQLFieldDefinition, String complexitySpelExpression, long timeoutMillis) {
         fieldDefinitionResolverMap.put(graphQLFieldDefinition,
-                new GraphQLFieldDefinitionWrapper(graphQLFieldDefinition, complexitySpelExpression));
+                new GraphQLFieldDefinitionWrapper(graphQLFieldDefinition, complexitySpelExpression, timeoutMillis));
     }
 
     public GraphQLType createGraphQLFieldType(DfsContext dfsContext, ResolvableTypeAccessor resolvableTypeAccessor, boolean isRecursive) {
@@ -487,7 +531,8 @@ public class GraphQLSchemaDfsTraversal {
                             .build());
                 }
                 GraphQLFieldDefinition mutationField = fieldBuilder.build();
-                addToFieldDefinitionResolverMap(dfsContext, mutationField, methodReturnTypeResolvableTypeAccessor.getGraphQLComplexitySpelExpression());
+                addToFieldDefinitionResolverMap(dfsContext, mutationField, methodReturnTypeResolvableTypeAccessor.getGraphQLComplexitySpelExpression(),
+                        methodReturnTypeResolvableTypeAccessor.getGraphQLTimeoutMillis());
                 graphQLFieldDefinitions.add(mutationField);
             }
         });
@@ -617,10 +662,21 @@ public class GraphQLSchemaDfsTraversal {
         return fieldDefinitionResolverMap;
     }
 
+    public Map<String, GraphQLFieldResultCache> getFieldResultCacheMap() {
+        return fieldResultCacheMap;
+    }
+
     public ConcurrentHashMap<Class<?>, String> getObjectTypeNameReferenceMap() {
         return objectTypeNameReferenceMap;
     }
 
+    /**
+     * @return schema rooted at the subscription type or <code>null</code> if schema class declares no subscription
+     */
+    public GraphQLSchema getSubscriptionSchema() {
+        return subscriptionSchema;
+    }
+
     public String getSchemaName() {
         return schemaName;
     }
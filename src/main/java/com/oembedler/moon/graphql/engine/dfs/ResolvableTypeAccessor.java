@@ -26,6 +26,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
+import rx.Observable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -33,12 +34,16 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
  */
 public class ResolvableTypeAccessor {
 
+    private static final Class<?>[] ASYNC_TYPES = {Observable.class, CompletionStage.class, Future.class};
+
     private final String name;
     private final Class<?> implClass;
     private final ResolvableType resolvableType;
@@ -78,7 +83,7 @@ public class ResolvableTypeAccessor {
     }
 
     public static ResolvableTypeAccessor forMethodReturnType(Method method, Class<?> implClass) {
-        ResolvableType resolvableType = ResolvableType.forMethodReturnType(method, implClass);
+        ResolvableType resolvableType = unwrapAsyncType(ResolvableType.forMethodReturnType(method, implClass));
         return new ResolvableTypeAccessor(
                 method.getName(),
                 resolvableType,
@@ -86,6 +91,20 @@ public class ResolvableTypeAccessor {
                 implClass);
     }
 
+    /**
+     * Asynchronous results (observables and futures) are exposed by their value type.
+     */
+    private static ResolvableType unwrapAsyncType(ResolvableType resolvableType) {
+        Class<?> rawCls = resolvableType.resolve();
+        if (rawCls != null) {
+            for (Class<?> asyncType : ASYNC_TYPES) {
+                if (asyncType.isAssignableFrom(rawCls))
+                    return resolvableType.as(asyncType).getGeneric(0);
+            }
+        }
+        return resolvableType;
+    }
+
     public static ResolvableTypeAccessor forMethodParameter(Method method, int argIndex, Class<?> implClass) {
         MethodParameter methodParameter = new MethodParameter(method, argIndex);
         ResolvableType resolvableType = ResolvableType.forMethodParameter(method, argIndex, implClass);
@@ -218,6 +237,14 @@ public class ResolvableTypeAccessor {
         return result;
     }
 
+    /**
+     * @return field timeout in milliseconds or zero when there is none
+     */
+    public long getGraphQLTimeoutMillis() {
+        GraphQLTimeout graphQLTimeout = getAnnotation(GraphQLTimeout.class);
+        return graphQLTimeout != null ? graphQLTimeout.timeUnit().toMillis(graphQLTimeout.value()) : 0;
+    }
+
     public boolean hasGraphQLComplexity() {
         return StringUtils.hasText(getGraphQLComplexitySpelExpression());
     }
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+
+import java.util.List;
+
+/**
+ * Reported when field (or list element) can not be completed, the value at the path resolves to <code>null</code>
+ * and the rest of the response is still completed.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class FieldExecutionError implements GraphQLError {
+
+    private final List<Object> path;
+    private final String message;
+    private final Throwable exception;
+
+    public FieldExecutionError(List<Object> path, Throwable exception) {
+        // only the message is exposed to clients, not the exception class
+        this(path, exception.getMessage() != null ? "Exception while fetching data: " + exception.getMessage() : "Exception while fetching data", exception);
+    }
+
+    public FieldExecutionError(List<Object> path, String message) {
+        this(path, message, null);
+    }
+
+    private FieldExecutionError(List<Object> path, String message, Throwable exception) {
+        this.path = path;
+        this.message = message;
+        this.exception = exception;
+    }
+
+    /**
+     * @return response path of the failed value, field response names and list indexes
+     */
+    public List<Object> getPath() {
+        return path;
+    }
+
+    /**
+     * @return cause of the failure for server side handling, never serialized to clients
+     */
+    @JsonIgnore
+    public Throwable getException() {
+        return exception;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return null;
+    }
+
+    @Override
+    public ErrorType getErrorType() {
+        return ErrorType.DataFetchingException;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldExecutionError{path=" + path + ", message='" + message + "'}";
+    }
+}
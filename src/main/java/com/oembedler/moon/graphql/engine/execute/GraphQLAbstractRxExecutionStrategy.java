@@ -19,26 +19,31 @@
 
 package com.oembedler.moon.graphql.engine.execute;
 
-import com.oembedler.moon.graphql.GraphQLConstants;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import com.oembedler.moon.graphql.engine.ReflectionGraphQLDataFetcher;
 import com.oembedler.moon.graphql.engine.dfs.GraphQLFieldDefinitionWrapper;
 import graphql.ExecutionResult;
 import graphql.execution.ExecutionContext;
 import graphql.execution.ExecutionStrategy;
 import graphql.language.Field;
-import graphql.language.OperationDefinition;
 import graphql.schema.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.NestedRuntimeException;
-import org.springframework.expression.Expression;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import rx.Observable;
-import rx.observables.MathObservable;
+import rx.functions.Func0;
 
-import java.util.Comparator;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Idea was borrowed from <a href="https://github.com/nfl/graphql-rxjava"></a>
@@ -47,6 +52,8 @@ import java.util.stream.IntStream;
  */
 abstract class GraphQLAbstractRxExecutionStrategy extends ExecutionStrategy {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLAbstractRxExecutionStrategy.class);
+
     public static final Double NODE_SCORE = 1.0;
 
     protected final GraphQLSchemaHolder graphQLSchemaHolder;
@@ -77,13 +84,248 @@ abstract class GraphQLAbstractRxExecutionStrategy extends ExecutionStrategy {
         if (executionContext instanceof GraphQLExecutionContext) {
             return (GraphQLExecutionContext) executionContext;
         } else {
-            int currentDepth = executionContext.getOperationDefinition().getOperation() == OperationDefinition.Operation.MUTATION ? 1 : 0;
-            return new GraphQLExecutionContext(executionContext, currentDepth);
+            return new GraphQLExecutionContext(executionContext, GraphQLExecutionContext.getInitialDepth(executionContext));
         }
     }
 
     protected GraphQLExecutionContext updateContext(GraphQLExecutionContext currentExecutionContext) {
-        return new GraphQLExecutionContext(currentExecutionContext.getDelegate(), currentExecutionContext.getCurrentDepth() + 1);
+        return currentExecutionContext.withDepth(currentExecutionContext.getCurrentDepth() + 1);
+    }
+
+    protected ExecutionContext withPathSegment(ExecutionContext executionContext, String fieldName) {
+        if (!(executionContext instanceof GraphQLExecutionContext))
+            return executionContext;
+        GraphQLExecutionContext graphQLExecutionContext = (GraphQLExecutionContext) executionContext;
+        return graphQLExecutionContext.withPath(graphQLExecutionContext.getPath().segment(fieldName));
+    }
+
+    protected ExecutionContext withPathSegment(ExecutionContext executionContext, int index) {
+        if (!(executionContext instanceof GraphQLExecutionContext))
+            return executionContext;
+        GraphQLExecutionContext graphQLExecutionContext = (GraphQLExecutionContext) executionContext;
+        return graphQLExecutionContext.withPath(graphQLExecutionContext.getPath().segment(index));
+    }
+
+    protected GraphQLQueryPlan getQueryPlan(ExecutionContext executionContext) {
+        return executionContext instanceof GraphQLExecutionContext ? ((GraphQLExecutionContext) executionContext).getQueryPlan() : null;
+    }
+
+    protected GraphQLRequestScope getRequestScope(ExecutionContext executionContext) {
+        return executionContext instanceof GraphQLExecutionContext ? ((GraphQLExecutionContext) executionContext).getRequestScope() : new GraphQLRequestScope();
+    }
+
+    protected GraphQLFieldDefinition getFieldDefinition(ExecutionContext executionContext, GraphQLObjectType parentType, Field field) {
+        GraphQLQueryPlan queryPlan = getQueryPlan(executionContext);
+        if (queryPlan == null)
+            return getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
+        return queryPlan.getFieldDefinition(parentType, field, f -> getFieldDef(executionContext.getGraphQLSchema(), parentType, f));
+    }
+
+    protected Map<String, Object> getArgumentValues(ExecutionContext executionContext, GraphQLFieldDefinition fieldDef, Field field) {
+        GraphQLQueryPlan queryPlan = getQueryPlan(executionContext);
+        if (queryPlan == null)
+            return valuesResolver.getArgumentValues(fieldDef.getArguments(), field.getArguments(), executionContext.getVariables());
+        return queryPlan.getArgumentValues(valuesResolver, fieldDef, field, executionContext.getVariables());
+    }
+
+    @Override
+    protected ExecutionResult resolveField(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, List<Field> fields) {
+        if (getQueryPlan(executionContext) == null)
+            return super.resolveField(executionContext, parentType, source, fields);
+
+        GraphQLFieldDefinition fieldDef = getFieldDefinition(executionContext, parentType, fields.get(0));
+        if (fieldDef == null)
+            return null;
+
+        Map<String, Object> argumentValues = getArgumentValues(executionContext, fieldDef, fields.get(0));
+        GraphQLDeadline deadline = getFieldDeadline(executionContext, fieldDef);
+        DataFetchingEnvironment environment = new GraphQLDataFetchingEnvironment(source, argumentValues, executionContext.getRoot(),
+                fields, fieldDef.getType(), parentType, executionContext.getGraphQLSchema(), getRequestScope(executionContext), deadline);
+
+        Field field = fields.get(0);
+        ExecutionContext fieldExecutionContext = withPathSegment(executionContext, field.getAlias() != null ? field.getAlias() : field.getName());
+
+        Object resolvedValue = null;
+        if (deadline.isExpired()) {
+            // nothing is fetched once deadline has passed
+            executionContext.addError(new FieldTimeoutError(field.getName()));
+        } else {
+            try {
+                resolvedValue = applyDeadline(executionContext, fieldDef, fields, fieldDef.getDataFetcher().get(environment), deadline);
+            } catch (Exception e) {
+                // interrupted on timeout, the timeout is reported by whoever cancelled resolution
+                if (!deadline.isExpired() || !isCausedByInterruption(e))
+                    return captureFieldError(fieldExecutionContext, fieldDef.getType(), e);
+            }
+        }
+
+        return completeValueOrNull(fieldExecutionContext, fieldDef.getType(), fields, resolvedValue);
+    }
+
+    /**
+     * Completes value as an error boundary. An exception is reported with path of the value and the value is
+     * nulled, the rest of the response is still completed. Null of a non-null type is propagated to the closest
+     * nullable parent by {@link NonNullFieldRuntimeException}.
+     */
+    protected ExecutionResult completeValueOrNull(ExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, Object result) {
+        ExecutionResult executionResult;
+        try {
+            executionResult = completeValue(executionContext, fieldType, fields, result);
+        } catch (RuntimeException e) {
+            return captureFieldError(executionContext, fieldType, e);
+        }
+        if (isResolved(executionResult))
+            return executionResult;
+
+        Observable<?> data = nullOnFieldError(executionContext, fieldType, unwrapExecutionResult(executionResult));
+        // failures are reported by data, only exceeded complexity limit is reported as a whole
+        Observable<Double> complexity = getComplexityObservable(executionResult)
+                .onErrorResumeNext(e -> e instanceof QueryComplexityLimitExceededRuntimeException ? Observable.error(e) : Observable.just(0.0));
+        return new GraphQLRxExecutionResult(data, null, complexity);
+    }
+
+    private <T> Observable<T> nullOnFieldError(ExecutionContext executionContext, GraphQLType fieldType, Observable<T> data) {
+        return data.onErrorResumeNext(e -> Observable.defer(() -> {
+            captureFieldError(executionContext, fieldType, e);
+            return Observable.<T>just(null);
+        }));
+    }
+
+    /**
+     * Reports failure of the value unless it is a propagated null, which is reported where it originates.
+     *
+     * @return <code>null</code> value result
+     * @throws NonNullFieldRuntimeException when value is of non-null type
+     */
+    protected ExecutionResult captureFieldError(ExecutionContext executionContext, GraphQLType fieldType, Throwable throwable) {
+        if (!(throwable instanceof NonNullFieldRuntimeException)) {
+            // data fetcher logs exceptions it throws
+            if (!(throwable instanceof ReflectionGraphQLDataFetcher.DataFetcherRuntimeException))
+                LOGGER.info("Exception while fetching data", throwable);
+            executionContext.addError(new FieldExecutionError(getPath(executionContext), unwrapFieldException(throwable)));
+        }
+        if (fieldType instanceof GraphQLNonNull)
+            throw new NonNullFieldRuntimeException("Non-null value at " + getPath(executionContext) + " is null", throwable);
+        return new GraphQLResolvedExecutionResult(null);
+    }
+
+    /**
+     * @return <code>null</code> result of a field which could not be resolved at all, e.g. timed out
+     * @throws NonNullFieldRuntimeException when field is of non-null type
+     */
+    protected ExecutionResult unresolvedField(ExecutionContext executionContext, GraphQLObjectType parentType, List<Field> fields) {
+        GraphQLFieldDefinition fieldDef = getFieldDefinition(executionContext, parentType, fields.get(0));
+        if (fieldDef != null && fieldDef.getType() instanceof GraphQLNonNull)
+            throw new NonNullFieldRuntimeException("Non-null field [" + fields.get(0).getName() + "] is not resolved", null);
+        return null;
+    }
+
+    /**
+     * @return exception thrown by the data fetcher method itself rather than its wrapper, e.g. of a reflective call or a failed future
+     */
+    protected Throwable unwrapFieldException(Throwable throwable) {
+        Throwable exception = throwable;
+        while ((exception instanceof ReflectionGraphQLDataFetcher.DataFetcherRuntimeException
+                || exception instanceof InvocationTargetException || exception instanceof CompletionException
+                || exception instanceof ExecutionException)
+                && exception.getCause() != null)
+            exception = exception.getCause();
+        return exception;
+    }
+
+    protected List<Object> getPath(ExecutionContext executionContext) {
+        return executionContext instanceof GraphQLExecutionContext ? ((GraphQLExecutionContext) executionContext).getPath().toList() : Collections.emptyList();
+    }
+
+    /**
+     * @return data in which null propagated out of non-null values is resolved as <code>null</code>
+     */
+    static <T> Observable<T> nullOnNonNullViolation(Observable<T> data) {
+        return data.onErrorResumeNext(e -> e instanceof NonNullFieldRuntimeException ? Observable.just(null) : Observable.error(e));
+    }
+
+    /**
+     * @return the earlier of request deadline and deadline of the field timeout starting now
+     */
+    protected GraphQLDeadline getFieldDeadline(ExecutionContext executionContext, GraphQLFieldDefinition fieldDef) {
+        GraphQLDeadline deadline = getRequestScope(executionContext).getDeadline();
+        GraphQLFieldDefinitionWrapper graphQLFieldDefinitionWrapper = fieldDef != null ? getGraphQLFieldDefinitionWrapper(fieldDef) : null;
+        if (graphQLFieldDefinitionWrapper != null && graphQLFieldDefinitionWrapper.getTimeoutMillis() > 0)
+            deadline = deadline.min(GraphQLDeadline.after(graphQLFieldDefinitionWrapper.getTimeoutMillis(), TimeUnit.MILLISECONDS));
+        return deadline;
+    }
+
+    /**
+     * Bounds asynchronous value by the deadline. On timeout the value is unsubscribed, which cancels outstanding
+     * observables, futures are cancelled explicitly unless they are cached for other requests,
+     * and the field completes with <code>null</code> and an error.
+     */
+    protected Object applyDeadline(ExecutionContext executionContext, GraphQLFieldDefinition fieldDef, List<Field> fields, Object resolvedValue, GraphQLDeadline deadline) {
+        if (!deadline.isBounded())
+            return resolvedValue;
+        Observable<Object> asyncResult = GraphQLAsyncResultAdapter.toObservable(resolvedValue);
+        if (asyncResult == null)
+            return resolvedValue;
+        return asyncResult
+                .timeout(deadline.getRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .onErrorResumeNext(e -> {
+                    if (!(e instanceof TimeoutException))
+                        return Observable.error(e);
+                    if (resolvedValue instanceof Future && !isResultCached(fieldDef))
+                        ((Future<?>) resolvedValue).cancel(true);
+                    executionContext.addError(new FieldTimeoutError(fields.get(0).getName()));
+                    return Observable.just(null);
+                });
+    }
+
+    private static boolean isCausedByInterruption(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException)
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isResultCached(GraphQLFieldDefinition fieldDef) {
+        return fieldDef.getDataFetcher() instanceof ReflectionGraphQLDataFetcher
+                && ((ReflectionGraphQLDataFetcher) fieldDef.getDataFetcher()).getFieldResultCache() != null;
+    }
+
+    /**
+     * Resolves subscription root field into the stream of source events, a value which is not a stream is a single event.
+     */
+    protected Observable<Object> resolveSubscriptionSource(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, List<Field> fields) {
+        GraphQLFieldDefinition fieldDef = getFieldDefinition(executionContext, parentType, fields.get(0));
+        Map<String, Object> argumentValues = getArgumentValues(executionContext, fieldDef, fields.get(0));
+        DataFetchingEnvironment environment = new GraphQLDataFetchingEnvironment(source, argumentValues, executionContext.getRoot(),
+                fields, fieldDef.getType(), parentType, executionContext.getGraphQLSchema(), getRequestScope(executionContext));
+
+        Object resolvedValue;
+        try {
+            resolvedValue = fieldDef.getDataFetcher().get(environment);
+        } catch (Exception e) {
+            return Observable.error(e);
+        }
+
+        if (resolvedValue instanceof Observable)
+            return ((Observable<?>) resolvedValue).cast(Object.class);
+        Observable<Object> asyncResult = GraphQLAsyncResultAdapter.toObservable(resolvedValue);
+        return asyncResult != null ? asyncResult : Observable.just(resolvedValue);
+    }
+
+    /**
+     * Completes an event of the subscription source stream as value of the subscription root field.
+     */
+    protected ExecutionResult completeSubscriptionEvent(ExecutionContext executionContext, GraphQLObjectType parentType, List<Field> fields, Object event) {
+        GraphQLExecutionContext eventExecutionContext = updateContext(wrapIfAny(executionContext));
+        Field field = fields.get(0);
+        String responseName = field.getAlias() != null ? field.getAlias() : field.getName();
+        GraphQLFieldDefinition fieldDef = getFieldDefinition(eventExecutionContext, parentType, field);
+        ExecutionResult fieldResult = completeValueOrNull(withPathSegment(eventExecutionContext, responseName), fieldDef.getType(), fields, event);
+
+        Observable<?> data = unwrapExecutionResult(fieldResult).map(value -> Collections.singletonMap(responseName, value));
+        Observable<Double> complexity = calculateFieldComplexity(eventExecutionContext, parentType, fields, getComplexityObservable(fieldResult));
+        return new GraphQLRxExecutionResult(data, Observable.just(executionContext.getErrors()), complexity);
     }
 
     protected boolean isCurrentDepthLimitExceeded(GraphQLExecutionContext executionContext) {
@@ -92,25 +334,24 @@ abstract class GraphQLAbstractRxExecutionStrategy extends ExecutionStrategy {
     }
 
     protected Observable<Double> calculateFieldComplexity(ExecutionContext executionContext, GraphQLObjectType parentType, List<Field> fields, Observable<Double> childScore) {
-        return childScore.flatMap(aDouble -> {
-            Observable<Double> result = Observable.just(aDouble + NODE_SCORE);
-            GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, fields.get(0));
-            if (fieldDef != null) {
-                GraphQLFieldDefinitionWrapper graphQLFieldDefinitionWrapper = getGraphQLFieldDefinitionWrapper(fieldDef);
-                if (graphQLFieldDefinitionWrapper != null) {
-                    Expression expression = graphQLFieldDefinitionWrapper.getComplexitySpelExpression();
-                    if (expression != null) {
-                        Map<String, Object> argumentValues = valuesResolver.getArgumentValues(fieldDef.getArguments(), fields.get(0).getArguments(), executionContext.getVariables());
-                        StandardEvaluationContext context = new StandardEvaluationContext();
-                        context.setVariable(GraphQLConstants.EXECUTION_COMPLEXITY_CHILD_SCORE, aDouble);
-                        if (argumentValues != null)
-                            context.setVariables(argumentValues);
-                        result = Observable.just(expression.getValue(context, Double.class));
-                    }
-                }
+        return childScore.flatMap(aDouble ->
+                addComplexityCheckObservable(executionContext, Observable.just(evaluateFieldComplexity(executionContext, parentType, fields, aDouble))));
+    }
+
+    protected Double evaluateFieldComplexity(ExecutionContext executionContext, GraphQLObjectType parentType, List<Field> fields, Double childScore) {
+        GraphQLFieldDefinition fieldDef = getFieldDefinition(executionContext, parentType, fields.get(0));
+        if (fieldDef != null) {
+            GraphQLFieldDefinitionWrapper graphQLFieldDefinitionWrapper = getGraphQLFieldDefinitionWrapper(fieldDef);
+            if (graphQLFieldDefinitionWrapper != null && graphQLFieldDefinitionWrapper.getComplexitySpelExpression() != null) {
+                Map<String, Object> argumentValues = getArgumentValues(executionContext, fieldDef, fields.get(0));
+                return graphQLFieldDefinitionWrapper.evaluateComplexity(childScore, argumentValues);
             }
-            return addComplexityCheckObservable(executionContext, result);
-        });
+        }
+        return childScore + NODE_SCORE;
+    }
+
+    protected boolean isComplexityLimitExceeded(ExecutionContext executionContext, Double complexity) {
+        return executionContext instanceof GraphQLExecutionContext && maxQueryComplexity > 0 && complexity > maxQueryComplexity;
     }
 
     protected GraphQLFieldDefinitionWrapper getGraphQLFieldDefinitionWrapper(GraphQLFieldDefinition fieldDef) {
@@ -120,89 +361,290 @@ abstract class GraphQLAbstractRxExecutionStrategy extends ExecutionStrategy {
     protected Observable<Double> addComplexityCheckObservable(ExecutionContext executionContext, Observable<Double> fieldComplexity) {
         if (executionContext instanceof GraphQLExecutionContext) {
             return fieldComplexity.flatMap(complexity -> {
-                if (maxQueryComplexity > 0 && complexity > maxQueryComplexity)
-                    throw new QueryComplexityLimitExceededRuntimeException("Query complexity limit exceeded. Current [" + complexity + "]. Limit [" + maxQueryComplexity + "]");
+                if (isComplexityLimitExceeded(executionContext, complexity))
+                    throw createComplexityLimitExceededException(complexity);
                 return Observable.just(complexity);
             });
         }
         return fieldComplexity;
     }
 
+    protected QueryComplexityLimitExceededRuntimeException createComplexityLimitExceededException(Double complexity) {
+        return new QueryComplexityLimitExceededRuntimeException("Query complexity limit exceeded. Current [" + complexity + "]. Limit [" + maxQueryComplexity + "]", complexity);
+    }
+
+    /**
+     * @return true when data and complexity of the result are available without subscribing to anything,
+     * e.g. {@link GraphQLResolvedExecutionResult} or <code>null</code> of an unresolved field
+     */
+    protected boolean isResolved(ExecutionResult executionResult) {
+        return !(executionResult instanceof GraphQLRxExecutionResult);
+    }
+
+    protected Object getResolvedData(ExecutionResult executionResult) {
+        return executionResult != null ? executionResult.getData() : null;
+    }
+
+    protected Double getResolvedComplexity(ExecutionResult executionResult) {
+        return executionResult instanceof GraphQLResolvedExecutionResult ? ((GraphQLResolvedExecutionResult) executionResult).getComplexity() : 0.0;
+    }
+
+    protected Observable<?> unwrapExecutionResult(ExecutionResult executionResult) {
+        if (executionResult instanceof GraphQLRxExecutionResult) {
+            return ((GraphQLRxExecutionResult) executionResult).getDataObservable().flatMap(potentialResult -> {
+                if (potentialResult instanceof GraphQLRxExecutionResult) {
+                    return ((GraphQLRxExecutionResult) potentialResult).getDataObservable();
+                }
+                return Observable.just(potentialResult);
+            });
+        }
+        return Observable.just(getResolvedData(executionResult));
+    }
+
+    protected Observable<Double> getComplexityObservable(ExecutionResult executionResult) {
+        if (executionResult instanceof GraphQLRxExecutionResult)
+            return ((GraphQLRxExecutionResult) executionResult).getComplexityObservable();
+        return Observable.just(getResolvedComplexity(executionResult));
+    }
+
     @Override
     protected ExecutionResult completeValue(ExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, Object result) {
-        if (result instanceof Observable) {
-            return new GraphQLRxExecutionResult(((Observable<?>) result).map(r -> super.completeValue(executionContext, fieldType, fields, r)), null);
+        Observable<Object> asyncResult = GraphQLAsyncResultAdapter.toObservable(result);
+        if (asyncResult != null)
+            return completeAsyncValue(executionContext, fieldType, fields, asyncResult);
+        if (fieldType instanceof GraphQLNonNull)
+            return completeNonNullValue(executionContext, (GraphQLNonNull) fieldType, fields, result);
+        return completePlannedValue(executionContext, fieldType, fields, result);
+    }
+
+    /**
+     * Null completed for a non-null type is reported and propagated by {@link NonNullFieldRuntimeException},
+     * right away when resolved or as an error of the pending data.
+     */
+    protected ExecutionResult completeNonNullValue(ExecutionContext executionContext, GraphQLNonNull fieldType, List<Field> fields, Object result) {
+        ExecutionResult executionResult = completeValue(executionContext, fieldType.getWrappedType(), fields, result);
+        if (isResolved(executionResult)) {
+            if (getResolvedData(executionResult) == null)
+                throw createNonNullViolation(executionContext, fields);
+            return executionResult;
         }
-        return super.completeValue(executionContext, fieldType, fields, result);
+        Observable<?> data = unwrapExecutionResult(executionResult).map(value -> {
+            if (value == null)
+                throw createNonNullViolation(executionContext, fields);
+            return value;
+        });
+        return new GraphQLRxExecutionResult(data, null, getComplexityObservable(executionResult));
+    }
+
+    protected NonNullFieldRuntimeException createNonNullViolation(ExecutionContext executionContext, List<Field> fields) {
+        List<Object> path = getPath(executionContext);
+        executionContext.addError(new FieldExecutionError(path, "Cannot return null for non-nullable field [" + fields.get(0).getName() + "]"));
+        return new NonNullFieldRuntimeException("Non-null value at " + path + " is null", null);
+    }
+
+    protected ExecutionResult completeAsyncValue(ExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, Observable<Object> asyncResult) {
+        Observable<ExecutionResult> completedResult = asyncResult
+                .onErrorResumeNext(e -> Observable.defer(() -> Observable.just(captureFieldError(executionContext, fieldType, e).getData())))
+                .map(r -> completeValue(executionContext, fieldType, fields, r))
+                .cache();
+
+        Observable<?> data = completedResult.flatMap(this::unwrapExecutionResult);
+        Observable<Double> complexity = completedResult.flatMap(this::getComplexityObservable);
+
+        return new GraphQLRxExecutionResult(data, null, complexity);
+    }
+
+    protected ExecutionResult completePlannedValue(ExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, Object result) {
+        GraphQLQueryPlan queryPlan = getQueryPlan(executionContext);
+        if (queryPlan == null || result == null || !(fieldType instanceof GraphQLObjectType || fieldType instanceof GraphQLInterfaceType || fieldType instanceof GraphQLUnionType))
+            return super.completeValue(executionContext, fieldType, fields, result);
+
+        GraphQLObjectType resolvedType;
+        if (fieldType instanceof GraphQLInterfaceType)
+            resolvedType = resolveType((GraphQLInterfaceType) fieldType, result);
+        else if (fieldType instanceof GraphQLUnionType)
+            resolvedType = resolveType((GraphQLUnionType) fieldType, result);
+        else
+            resolvedType = (GraphQLObjectType) fieldType;
+
+        Map<String, List<Field>> subFields = queryPlan.getSubFields(executionContext, resolvedType, fields);
+        for (Map<String, List<Field>> deferredSubFields : queryPlan.getDeferredSubFields(executionContext, resolvedType, fields))
+            deferExecution(executionContext, resolvedType, result, deferredSubFields);
+        return executionContext.getExecutionStrategy().execute(executionContext, resolvedType, result, subFields);
+    }
+
+    /**
+     * Fields of a deferred fragment are executed once initial result is resolved and delivered as a patch
+     * with path of the object they belong to.
+     */
+    protected void deferExecution(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, Map<String, List<Field>> fields) {
+        if (!(executionContext instanceof GraphQLExecutionContext))
+            return;
+        GraphQLExecutionContext graphQLExecutionContext = (GraphQLExecutionContext) executionContext;
+        graphQLExecutionContext.getIncrementalDelivery().defer(Observable.defer(() -> {
+            GraphQLExecutionContext patchExecutionContext = graphQLExecutionContext.withSeparateErrors();
+            return createPatch(patchExecutionContext, () -> patchExecutionContext.getExecutionStrategy().execute(patchExecutionContext, parentType, source, fields));
+        }));
+    }
+
+    /**
+     * Items after the initial count of a list marked with <code>@stream</code> are completed once initial result
+     * is resolved and delivered one patch per item.
+     *
+     * @return items to be completed within the initial result
+     */
+    protected List<Object> deferStreamedItems(ExecutionContext executionContext, GraphQLList fieldType, List<Field> fields, List<Object> result) {
+        if (!(executionContext instanceof GraphQLExecutionContext) || getQueryPlan(executionContext) == null)
+            return result;
+        int initialCount = GraphQLDirectives.getStreamInitialCount(executionContext, fields);
+        if (initialCount < 0 || initialCount >= result.size())
+            return result;
+
+        GraphQLExecutionContext graphQLExecutionContext = (GraphQLExecutionContext) executionContext;
+        List<Object> streamedItems = result.subList(initialCount, result.size());
+        int idx = initialCount;
+        for (Object item : streamedItems) {
+            final int index = idx++;
+            graphQLExecutionContext.getIncrementalDelivery().defer(Observable.defer(() -> {
+                GraphQLExecutionContext patchExecutionContext = graphQLExecutionContext.withSeparateErrors();
+                GraphQLExecutionContext itemExecutionContext = patchExecutionContext.withPath(patchExecutionContext.getPath().segment(index));
+                return createPatch(itemExecutionContext, () -> completeValueOrNull(itemExecutionContext, fieldType.getWrappedType(), fields, item));
+            }));
+        }
+        return result.subList(0, initialCount);
+    }
+
+    /**
+     * Null propagated out of the patch nulls data of the patch only.
+     */
+    private Observable<GraphQLExecutionPatch> createPatch(GraphQLExecutionContext patchExecutionContext, Func0<ExecutionResult> execution) {
+        return nullOnNonNullViolation(Observable.defer(() -> unwrapExecutionResult(execution.call())))
+                .take(1)
+                .map(data -> new GraphQLExecutionPatch(patchExecutionContext.getPath().toList(), data, patchExecutionContext.getErrors()));
     }
 
     @Override
     protected ExecutionResult completeValueForEnum(GraphQLEnumType enumType, Object result) {
-        return new GraphQLRxExecutionResult(Observable.just(enumType.getCoercing().serialize(result)), Observable.just(null), Observable.just(0.0));
+        return new GraphQLResolvedExecutionResult(enumType.getCoercing().serialize(result));
     }
 
     @Override
     protected ExecutionResult completeValueForScalar(GraphQLScalarType scalarType, Object result) {
-        return new GraphQLRxExecutionResult(Observable.just(scalarType.getCoercing().serialize(result)), Observable.just(null), Observable.just(0.0));
+        return new GraphQLResolvedExecutionResult(scalarType.getCoercing().serialize(result));
     }
 
     @Override
     protected ExecutionResult completeValueForList(ExecutionContext executionContext, GraphQLList fieldType, List<Field> fields, List<Object> result) {
-        Observable<List<ListTuple>> cachedObservable =
-                Observable.from(
-                        IntStream.range(0, result.size())
-                                .mapToObj(idx -> new ListTuple(idx, result.get(idx), null))
-                                .toArray(ListTuple[]::new)
-                )
-                        .flatMap(tuple -> {
-                            ExecutionResult executionResult = completeValue(executionContext, fieldType.getWrappedType(), fields, tuple.result);
-                            if (executionResult instanceof GraphQLRxExecutionResult) {
-                                return Observable.zip(Observable.just(tuple.index),
-                                        ((GraphQLRxExecutionResult) executionResult).getDataObservable(),
-                                        ((GraphQLRxExecutionResult) executionResult).getComplexityObservable(),
-                                        ListTuple::new);
-                            }
-                            return Observable.just(new ListTuple(tuple.index, executionResult.getData(), Observable.just(1.0)));
-                        })
-                        .toList()
-                        .cache();
-
-        Observable<?> resultObservable = cachedObservable
-                .map(listTuples -> {
-                    return listTuples.stream()
-                            .sorted(Comparator.comparingInt(x -> x.index))
-                            .map(x -> x.result)
-                            .collect(Collectors.toList());
-                });
+        // elements are resolved before anything is subscribed so batched loads of the whole level are queued together
+        result = deferStreamedItems(executionContext, fieldType, fields, result);
+        final int size = result.size();
+        final Object[] resolvedValues = new Object[size];
+        final ExecutionResult[] pendingResults = new ExecutionResult[size];
+        double resolvedComplexity = completeListElements(executionContext, fieldType, fields, result, 0, size, resolvedValues, pendingResults);
+        return completeList(resolvedValues, resolvedComplexity, pendingResults);
+    }
+
+    /**
+     * Completes elements in range <code>[from, to)</code>. Synchronously resolved values are stored in
+     * <code>resolvedValues</code>, other results in <code>pendingResults</code> under the same index.
+     *
+     * @return summed complexity of resolved elements
+     */
+    protected double completeListElements(ExecutionContext executionContext, GraphQLList fieldType, List<Field> fields, List<Object> items,
+                                          int from, int to, Object[] resolvedValues, ExecutionResult[] pendingResults) {
+        double resolvedComplexity = 0.0;
+        int idx = from;
+        for (Object item : items.subList(from, to)) {
+            // every element is an error boundary, null of a non-null element nulls the whole list
+            ExecutionResult executionResult = completeValueOrNull(withPathSegment(executionContext, idx), fieldType.getWrappedType(), fields, item);
+            if (isResolved(executionResult)) {
+                resolvedValues[idx] = getResolvedData(executionResult);
+                resolvedComplexity += getResolvedComplexity(executionResult);
+            } else {
+                pendingResults[idx] = executionResult;
+            }
+            idx++;
+        }
+        return resolvedComplexity;
+    }
+
+    protected ExecutionResult completeList(Object[] resolvedValues, double resolvedComplexity, ExecutionResult[] pendingResults) {
+        int pendingCount = 0;
+        for (ExecutionResult pendingResult : pendingResults) {
+            if (pendingResult != null)
+                pendingCount++;
+        }
 
-        Observable<?> complexityObservable = cachedObservable
-                .map(listTuples -> {
-                    return listTuples.stream()
-                            .sorted(Comparator.comparingInt(x -> x.index))
-                            .map(x -> x.complexity)
-                            .collect(Collectors.toList());
-                })
-                .flatMap(combined -> Observable.from(combined));
+        if (pendingCount == 0)
+            return new GraphQLResolvedExecutionResult(Arrays.asList(resolvedValues), resolvedComplexity);
 
-        return new GraphQLRxExecutionResult(resultObservable, null, MathObservable.sumDouble((Observable<Double>) complexityObservable));
+        Observable<ListResult> listResult = completePendingListElements(resolvedValues, resolvedComplexity, pendingResults, pendingCount).cache();
+        return new GraphQLRxExecutionResult(listResult.map(x -> x.values), null, listResult.map(x -> x.complexity));
     }
 
-    private class ListTuple {
-        public int index;
-        public Object result;
-        public Object complexity;
+    /**
+     * Pending elements write data and complexity into their own slot, so list order is kept without sorting.
+     */
+    private Observable<ListResult> completePendingListElements(Object[] resolvedValues, double resolvedComplexity,
+                                                               ExecutionResult[] pendingResults, int pendingCount) {
+        return Observable.defer(() -> {
+            final Object[] values = resolvedValues.clone();
+            final double[] complexities = new double[values.length];
+            List<Observable<?>> pending = new ArrayList<>(pendingCount * 2);
+            for (int i = 0; i < pendingResults.length; i++) {
+                ExecutionResult executionResult = pendingResults[i];
+                if (executionResult == null)
+                    continue;
+                final int slot = i;
+                pending.add(unwrapExecutionResult(executionResult).take(1).doOnNext(value -> values[slot] = value));
+                pending.add(getComplexityObservable(executionResult).take(1).doOnNext(complexity -> complexities[slot] = complexity));
+            }
+            return Observable.merge(pending)
+                    .lastOrDefault(null)
+                    .map(ignored -> {
+                        double complexity = resolvedComplexity;
+                        for (double elementComplexity : complexities)
+                            complexity += elementComplexity;
+                        return new ListResult(Arrays.asList(values), complexity);
+                    });
+        });
+    }
+
+    private static class ListResult {
+        private final List<Object> values;
+        private final Double complexity;
 
-        public ListTuple(int index, Object result, Object complexity) {
-            this.index = index;
-            this.result = result;
+        public ListResult(List<Object> values, Double complexity) {
+            this.values = values;
             this.complexity = complexity;
         }
     }
 
-
     public static class QueryComplexityLimitExceededRuntimeException extends NestedRuntimeException {
+        private final double complexity;
+
         public QueryComplexityLimitExceededRuntimeException(String msg) {
+            this(msg, 0.0);
+        }
+
+        public QueryComplexityLimitExceededRuntimeException(String msg, double complexity) {
             super(msg);
+            this.complexity = complexity;
+        }
+
+        public double getComplexity() {
+            return complexity;
+        }
+    }
+
+    /**
+     * Signals that a non-null value is <code>null</code>, the null is propagated to the closest nullable parent.
+     */
+    public static class NonNullFieldRuntimeException extends NestedRuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public NonNullFieldRuntimeException(String msg, Throwable cause) {
+            super(msg, cause);
         }
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import org.springframework.util.ClassUtils;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+import rx.subjects.AsyncSubject;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Adapts asynchronous data fetcher results to a single element {@link Observable}.
+ * Supported result types are {@link Observable}, {@link CompletionStage} (e.g. {@link java.util.concurrent.CompletableFuture}),
+ * Guava and Spring <code>ListenableFuture</code> and plain {@link Future}. Only plain futures
+ * block a thread while waiting, others are completed through callbacks.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+abstract class GraphQLAsyncResultAdapter {
+
+    // Guava is optional, its future type is referenced only when it is on the classpath
+    private static final boolean GUAVA_PRESENT = ClassUtils.isPresent("com.google.common.util.concurrent.ListenableFuture",
+            GraphQLAsyncResultAdapter.class.getClassLoader());
+
+    /**
+     * @return observable emitting exactly one (possibly <code>null</code>) element or <code>null</code> if result is not asynchronous
+     */
+    public static Observable<Object> toObservable(Object result) {
+        if (result instanceof Observable)
+            return asObjectObservable((Observable<?>) result).firstOrDefault(null);
+
+        if (result instanceof CompletionStage) {
+            AsyncSubject<Object> subject = AsyncSubject.create();
+            ((CompletionStage<?>) result).whenComplete((value, throwable) -> {
+                if (throwable != null)
+                    subject.onError(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                else
+                    complete(subject, value);
+            });
+            return subject;
+        }
+
+        if (GUAVA_PRESENT && GuavaFutureAdapter.isListenableFuture(result))
+            return GuavaFutureAdapter.toObservable(result);
+
+        if (result instanceof org.springframework.util.concurrent.ListenableFuture) {
+            AsyncSubject<Object> subject = AsyncSubject.create();
+            ((org.springframework.util.concurrent.ListenableFuture<?>) result).addCallback(
+                    value -> complete(subject, value),
+                    subject::onError);
+            return subject;
+        }
+
+        if (result instanceof Future)
+            return Observable.<Object>from((Future<?>) result).subscribeOn(Schedulers.io()).cache();
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Observable<Object> asObjectObservable(Observable<?> observable) {
+        // elements are only read, so the observable is safely viewed as one of objects
+        return (Observable<Object>) observable;
+    }
+
+    private static void complete(AsyncSubject<Object> subject, Object value) {
+        subject.onNext(value);
+        subject.onCompleted();
+    }
+
+    private static void completeFromDoneFuture(AsyncSubject<Object> subject, Future<?> future) {
+        try {
+            complete(subject, future.get());
+        } catch (ExecutionException e) {
+            subject.onError(e.getCause() != null ? e.getCause() : e);
+        } catch (Exception e) {
+            subject.onError(e);
+        }
+    }
+
+    private static final class GuavaFutureAdapter {
+
+        private static boolean isListenableFuture(Object result) {
+            return result instanceof com.google.common.util.concurrent.ListenableFuture;
+        }
+
+        private static Observable<Object> toObservable(Object result) {
+            com.google.common.util.concurrent.ListenableFuture<?> future = (com.google.common.util.concurrent.ListenableFuture<?>) result;
+            AsyncSubject<Object> subject = AsyncSubject.create();
+            future.addListener(() -> completeFromDoneFuture(subject, future), Runnable::run);
+            return subject;
+        }
+    }
+}
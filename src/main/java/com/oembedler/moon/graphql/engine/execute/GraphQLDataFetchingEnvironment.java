@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLSchema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDataFetchingEnvironment extends DataFetchingEnvironment {
+
+    private final GraphQLRequestScope requestScope;
+    private final GraphQLDeadline deadline;
+
+    public GraphQLDataFetchingEnvironment(Object source, Map<String, Object> arguments, Object context, List<Field> fields,
+                                          GraphQLOutputType fieldType, GraphQLObjectType parentType, GraphQLSchema graphQLSchema,
+                                          GraphQLRequestScope requestScope) {
+        this(source, arguments, context, fields, fieldType, parentType, graphQLSchema, requestScope, requestScope.getDeadline());
+    }
+
+    public GraphQLDataFetchingEnvironment(Object source, Map<String, Object> arguments, Object context, List<Field> fields,
+                                          GraphQLOutputType fieldType, GraphQLObjectType parentType, GraphQLSchema graphQLSchema,
+                                          GraphQLRequestScope requestScope, GraphQLDeadline deadline) {
+        super(source, arguments, context, fields, fieldType, parentType, graphQLSchema);
+        this.requestScope = requestScope;
+        this.deadline = deadline;
+    }
+
+    public GraphQLRequestScope getRequestScope() {
+        return requestScope;
+    }
+
+    /**
+     * @return the earlier of request deadline and deadline of the field being resolved
+     */
+    public GraphQLDeadline getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a request or a field has to be resolved. Data fetchers can check it through
+ * {@link #from(DataFetchingEnvironment)} to stop work which result would be discarded anyway.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDeadline {
+
+    private static final GraphQLDeadline NONE = new GraphQLDeadline(false, 0);
+
+    private final boolean bounded;
+    private final long deadlineNanos;
+
+    private GraphQLDeadline(boolean bounded, long deadlineNanos) {
+        this.bounded = bounded;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static GraphQLDeadline none() {
+        return NONE;
+    }
+
+    /**
+     * @return deadline the given time from now or no deadline when timeout is not positive
+     */
+    public static GraphQLDeadline after(long timeout, TimeUnit timeUnit) {
+        return timeout > 0 ? new GraphQLDeadline(true, System.nanoTime() + timeUnit.toNanos(timeout)) : NONE;
+    }
+
+    /**
+     * @return deadline of the field being resolved or no deadline when environment was not created by the engine
+     */
+    public static GraphQLDeadline from(DataFetchingEnvironment environment) {
+        if (environment instanceof GraphQLDataFetchingEnvironment)
+            return ((GraphQLDataFetchingEnvironment) environment).getDeadline();
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return time left until deadline, zero once expired and {@link Long#MAX_VALUE} when there is no deadline
+     */
+    public long getRemaining(TimeUnit timeUnit) {
+        if (!bounded)
+            return Long.MAX_VALUE;
+        return timeUnit.convert(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the earlier of two deadlines
+     */
+    public GraphQLDeadline min(GraphQLDeadline other) {
+        if (!other.bounded)
+            return this;
+        if (!bounded)
+            return other;
+        return deadlineNanos - other.deadlineNanos <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "GraphQLDeadline{remainingMs=" + getRemaining(TimeUnit.MILLISECONDS) + '}' : "GraphQLDeadline{none}";
+    }
+}
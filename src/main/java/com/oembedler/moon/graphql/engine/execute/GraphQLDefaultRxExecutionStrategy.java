@@ -21,14 +21,18 @@ package com.oembedler.moon.graphql.engine.execute;
 
 import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
 import graphql.ExecutionResult;
+import graphql.GraphQLError;
 import graphql.execution.ExecutionContext;
 import graphql.language.Field;
+import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
-import org.apache.commons.lang3.tuple.Pair;
 import rx.Observable;
 import rx.observables.MathObservable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,40 +49,134 @@ class GraphQLDefaultRxExecutionStrategy extends GraphQLAbstractRxExecutionStrate
 
     public ExecutionResult doExecute(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, Map<String, List<Field>> fields) {
 
-        List<Observable<Pair<String, Object>>> observablesResult = new ArrayList<>();
-        List<Observable<Double>> observablesComplexity = new ArrayList<>();
+        List<ExecutionResult> fieldResults = new ArrayList<>(fields.size());
         for (String fieldName : fields.keySet()) {
             final List<Field> fieldList = fields.get(fieldName);
+            fieldResults.add(resolveField(executionContext, parentType, source, fieldList));
+        }
+
+        return completeObject(executionContext, parentType, fields, fieldResults);
+    }
 
-            ExecutionResult executionResult = resolveField(executionContext, parentType, source, fieldList);
-            observablesResult.add(unwrapExecutionResult(fieldName, executionResult));
-            observablesComplexity.add(calculateFieldComplexity(executionContext, parentType, fieldList,
-                    executionResult != null ? ((GraphQLRxExecutionResult) executionResult).getComplexityObservable() : Observable.just(0.0)));
+    /**
+     * Builds object result out of field results given in selection order. Resolved values and complexities
+     * are taken as is, observables are composed only for fields which are still pending.
+     */
+    protected ExecutionResult completeObject(ExecutionContext executionContext, GraphQLObjectType parentType, Map<String, List<Field>> fields, List<ExecutionResult> fieldResults) {
+
+        List<Object> fieldValues = new ArrayList<>(fieldResults.size());
+        List<Observable<Double>> pendingComplexities = null;
+        boolean pending = false;
+        double complexity = 0.0;
+        int idx = 0;
+        for (List<Field> fieldList : fields.values()) {
+            ExecutionResult executionResult = fieldResults.get(idx++);
+            Observable<Double> pendingComplexity = null;
+            if (isResolved(executionResult)) {
+                fieldValues.add(getResolvedData(executionResult));
+                Double fieldComplexity = evaluateFieldComplexity(executionContext, parentType, fieldList, getResolvedComplexity(executionResult));
+                if (isComplexityLimitExceeded(executionContext, fieldComplexity))
+                    pendingComplexity = Observable.error(createComplexityLimitExceededException(fieldComplexity));
+                else
+                    complexity += fieldComplexity;
+            } else {
+                fieldValues.add(unwrapExecutionResult(executionResult));
+                pending = true;
+                pendingComplexity = calculateFieldComplexity(executionContext, parentType, fieldList, getComplexityObservable(executionResult));
+            }
+            if (pendingComplexity != null) {
+                if (pendingComplexities == null)
+                    pendingComplexities = new ArrayList<>();
+                pendingComplexities.add(pendingComplexity);
+            }
         }
 
-        Observable<Map<String, Object>> result =
-                Observable.merge(observablesResult)
-                        .toMap(Pair::getLeft, Pair::getRight);
+        if (!pending && pendingComplexities == null)
+            return new GraphQLResolvedExecutionResult(toResultMap(fields.keySet(), fieldValues), complexity);
+
+        Observable<Double> complexityObservable = pendingComplexities == null ? Observable.just(complexity) :
+                MathObservable.sumDouble(Observable.merge(pendingComplexities).startWith(complexity));
 
-        GraphQLRxExecutionResult graphQLRxExecutionResult = new GraphQLRxExecutionResult(result, Observable.just(executionContext.getErrors()), MathObservable.sumDouble(Observable.merge(observablesComplexity)));
-        return graphQLRxExecutionResult;
+        return createObjectResult(executionContext, parentType, fields, fieldValues, complexityObservable);
     }
 
-    protected Observable<Pair<String, Object>> unwrapExecutionResult(String fieldName, ExecutionResult executionResult) {
-        Observable<Pair<String, Object>> result;
-        if (executionResult instanceof GraphQLRxExecutionResult) {
-            GraphQLRxExecutionResult rxResult = (GraphQLRxExecutionResult) executionResult;
-            Observable<?> unwrappedResult = rxResult.getDataObservable().flatMap(potentialResult -> {
-                if (potentialResult instanceof GraphQLRxExecutionResult) {
-                    return ((GraphQLRxExecutionResult) potentialResult).getDataObservable();
-                }
-                return Observable.just(potentialResult);
-            });
+    /**
+     * Top level fields which are all nullable are also exposed one by one, so that the response can be written
+     * field by field as each of them completes. Null of a non-null top level field nulls the whole data,
+     * such fields are exposed as a whole only.
+     *
+     * @see GraphQLRxExecutionResult#getFieldObservables()
+     */
+    protected GraphQLRxExecutionResult createObjectResult(ExecutionContext executionContext, GraphQLObjectType parentType, Map<String, List<Field>> fields,
+                                                          List<?> fieldValues, Observable<Double> complexity) {
+        Observable<List<? extends GraphQLError>> errors = Observable.just(executionContext.getErrors());
+        if (!isRootObject(executionContext) || hasNonNullField(executionContext, parentType, fields))
+            return new GraphQLRxExecutionResult(assembleResult(fields.keySet(), fieldValues), errors, complexity);
 
-            result = Observable.zip(Observable.just(fieldName), unwrappedResult, Pair::of);
-        } else {
-            result = Observable.just(Pair.of(fieldName, executionResult != null ? executionResult.getData() : null));
+        Map<String, Observable<?>> fieldObservables = new LinkedHashMap<>((int) (fieldValues.size() / 0.75f) + 1);
+        List<Object> values = new ArrayList<>(fieldValues.size());
+        int idx = 0;
+        for (String fieldName : fields.keySet()) {
+            Object fieldValue = fieldValues.get(idx++);
+            // pending value is shared by data and field observables, so it is resolved once
+            Observable<?> fieldObservable = fieldValue instanceof Observable ?
+                    ((Observable<?>) fieldValue).cast(Object.class).firstOrDefault(null).cache() : Observable.just(fieldValue);
+            fieldObservables.put(fieldName, fieldObservable);
+            values.add(fieldValue instanceof Observable ? fieldObservable : fieldValue);
         }
+        return new GraphQLRxExecutionResult(assembleResult(fields.keySet(), values), errors, complexity, Collections.unmodifiableMap(fieldObservables));
+    }
+
+    private static boolean isRootObject(ExecutionContext executionContext) {
+        return executionContext instanceof GraphQLExecutionContext && ((GraphQLExecutionContext) executionContext).getPath() == GraphQLExecutionPath.ROOT;
+    }
+
+    private boolean hasNonNullField(ExecutionContext executionContext, GraphQLObjectType parentType, Map<String, List<Field>> fields) {
+        for (List<Field> fieldList : fields.values()) {
+            if (getFieldDefinition(executionContext, parentType, fieldList.get(0)).getType() instanceof GraphQLNonNull)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Assembles field values into a map which keeps selection order and is sized up front.
+     * Field value is either a resolved value or an {@link Observable} of a pending one. Resolved values are read directly,
+     * only pending ones are subscribed and write into their own slot.
+     */
+    protected Observable<Map<String, Object>> assembleResult(Iterable<String> fieldNames, List<?> fieldValues) {
+        boolean pending = false;
+        for (Object fieldValue : fieldValues) {
+            if (fieldValue instanceof Observable) {
+                pending = true;
+                break;
+            }
+        }
+        if (!pending)
+            return Observable.just(toResultMap(fieldNames, fieldValues));
+
+        return Observable.defer(() -> {
+            final Object[] values = fieldValues.toArray();
+            List<Observable<?>> pendingValues = new ArrayList<>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Observable) {
+                    final int slot = i;
+                    Observable<?> pendingValue = (Observable<?>) values[i];
+                    values[slot] = null;
+                    pendingValues.add(pendingValue.take(1).doOnNext(value -> values[slot] = value));
+                }
+            }
+            return Observable.merge(pendingValues)
+                    .lastOrDefault(null)
+                    .map(ignored -> toResultMap(fieldNames, Arrays.asList(values)));
+        });
+    }
+
+    private static Map<String, Object> toResultMap(Iterable<String> fieldNames, List<?> values) {
+        Map<String, Object> result = new LinkedHashMap<>((int) (values.size() / 0.75f) + 1);
+        int idx = 0;
+        for (String fieldName : fieldNames)
+            result.put(fieldName, values.get(idx++));
         return result;
     }
 
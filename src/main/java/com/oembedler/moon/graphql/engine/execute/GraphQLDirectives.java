@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.execution.ExecutionContext;
+import graphql.execution.ValuesResolver;
+import graphql.language.Directive;
+import graphql.language.Field;
+import graphql.language.Node;
+import graphql.schema.GraphQLDirective;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static graphql.Scalars.GraphQLBoolean;
+import static graphql.Scalars.GraphQLInt;
+import static graphql.schema.GraphQLArgument.newArgument;
+import static graphql.schema.GraphQLDirective.newDirective;
+
+/**
+ * Incremental delivery directives supported on top of <code>@include</code> and <code>@skip</code>.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLDirectives {
+
+    public static final GraphQLDirective DEFER = newDirective()
+            .name("defer")
+            .description("Directs the executor to deliver fields of this fragment in a subsequent patch")
+            .argument(newArgument().name("if").type(GraphQLBoolean).defaultValue(true).description("Deferred when true.").build())
+            .onOperation(false)
+            .onFragment(true)
+            .onField(false)
+            .build();
+
+    public static final GraphQLDirective STREAM = newDirective()
+            .name("stream")
+            .description("Directs the executor to deliver list items after the initial count in subsequent patches")
+            .argument(newArgument().name("initialCount").type(GraphQLInt).defaultValue(0).description("Number of items delivered in the initial result.").build())
+            .argument(newArgument().name("if").type(GraphQLBoolean).defaultValue(true).description("Streamed when true.").build())
+            .onOperation(false)
+            .onFragment(false)
+            .onField(true)
+            .build();
+
+    private static final ValuesResolver VALUES_RESOLVER = new ValuesResolver();
+
+    private GraphQLDirectives() {
+    }
+
+    public static List<GraphQLDirective> getDirectives() {
+        return Arrays.asList(DEFER, STREAM);
+    }
+
+    static boolean isDeferred(ExecutionContext executionContext, List<Directive> directives) {
+        Map<String, Object> argumentValues = getArgumentValues(executionContext, DEFER, directives);
+        return argumentValues != null && !Boolean.FALSE.equals(argumentValues.get("if"));
+    }
+
+    /**
+     * @return number of items to complete within the initial result or <code>-1</code> when list is not streamed
+     */
+    static int getStreamInitialCount(ExecutionContext executionContext, List<Field> fields) {
+        Map<String, Object> argumentValues = getArgumentValues(executionContext, STREAM, fields.get(0).getDirectives());
+        if (argumentValues == null || Boolean.FALSE.equals(argumentValues.get("if")))
+            return -1;
+        Object initialCount = argumentValues.get("initialCount");
+        return initialCount instanceof Number ? Math.max(0, ((Number) initialCount).intValue()) : 0;
+    }
+
+    /**
+     * @return true when any <code>@defer</code> or <code>@stream</code> is used within the node
+     */
+    static boolean isIncremental(Node node) {
+        if (node instanceof Directive) {
+            String name = ((Directive) node).getName();
+            return DEFER.getName().equals(name) || STREAM.getName().equals(name);
+        }
+        for (Node child : node.getChildren()) {
+            if (child != null && isIncremental(child))
+                return true;
+        }
+        return false;
+    }
+
+    private static Map<String, Object> getArgumentValues(ExecutionContext executionContext, GraphQLDirective directiveDefinition, List<Directive> directives) {
+        if (directives == null)
+            return null;
+        for (Directive directive : directives) {
+            if (directive.getName().equals(directiveDefinition.getName()))
+                return VALUES_RESOLVER.getArgumentValues(directiveDefinition.getArguments(), directive.getArguments(), executionContext.getVariables());
+        }
+        return null;
+    }
+}
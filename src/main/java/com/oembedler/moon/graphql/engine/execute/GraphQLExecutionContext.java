@@ -37,18 +37,83 @@ class GraphQLExecutionContext extends ExecutionContext {
 
     private final ExecutionContext delegate;
     private final int currentDepth;
+    private final GraphQLQueryPlan queryPlan;
+    private final GraphQLRequestScope requestScope;
+    private final GraphQLExecutionPath path;
+    private final GraphQLIncrementalDelivery incrementalDelivery;
 
     public GraphQLExecutionContext(ExecutionContext delegate, int currentDepth) {
+        this(delegate, currentDepth, null);
+    }
+
+    public GraphQLExecutionContext(ExecutionContext delegate, int currentDepth, GraphQLQueryPlan queryPlan) {
+        this(delegate, currentDepth, queryPlan, new GraphQLRequestScope());
+    }
+
+    public GraphQLExecutionContext(ExecutionContext delegate, int currentDepth, GraphQLQueryPlan queryPlan, GraphQLRequestScope requestScope) {
+        this(delegate, currentDepth, queryPlan, requestScope, GraphQLExecutionPath.ROOT, new GraphQLIncrementalDelivery());
+    }
+
+    public GraphQLExecutionContext(ExecutionContext delegate, int currentDepth, GraphQLQueryPlan queryPlan, GraphQLRequestScope requestScope,
+                                   GraphQLExecutionPath path, GraphQLIncrementalDelivery incrementalDelivery) {
         Assert.notNull(delegate, "ExecutionContext can not be null");
-        Assert.notNull(delegate, "GraphQLSchemaHolder can not be null");
+        Assert.notNull(requestScope, "GraphQLRequestScope can not be null");
+        Assert.notNull(path, "GraphQLExecutionPath can not be null");
+        Assert.notNull(incrementalDelivery, "GraphQLIncrementalDelivery can not be null");
         this.delegate = delegate;
         this.currentDepth = currentDepth;
+        this.queryPlan = queryPlan;
+        this.requestScope = requestScope;
+        this.path = path;
+        this.incrementalDelivery = incrementalDelivery;
+    }
+
+    public GraphQLExecutionContext withDepth(int depth) {
+        return new GraphQLExecutionContext(delegate, depth, queryPlan, requestScope, path, incrementalDelivery);
+    }
+
+    public GraphQLExecutionContext withPath(GraphQLExecutionPath path) {
+        return new GraphQLExecutionContext(delegate, currentDepth, queryPlan, requestScope, path, incrementalDelivery);
+    }
+
+    /**
+     * @return context of the same execution which collects errors separately, e.g. for a deferred patch
+     */
+    public GraphQLExecutionContext withSeparateErrors() {
+        ExecutionContext separateDelegate = new ExecutionContext();
+        separateDelegate.setGraphQLSchema(delegate.getGraphQLSchema());
+        separateDelegate.setExecutionStrategy(delegate.getExecutionStrategy());
+        separateDelegate.setFragmentsByName(delegate.getFragmentsByName());
+        separateDelegate.setOperationDefinition(delegate.getOperationDefinition());
+        separateDelegate.setVariables(delegate.getVariables());
+        separateDelegate.setRoot(delegate.getRoot());
+        return new GraphQLExecutionContext(separateDelegate, currentDepth, queryPlan, requestScope, path, incrementalDelivery);
+    }
+
+    public static int getInitialDepth(ExecutionContext executionContext) {
+        return executionContext.getOperationDefinition().getOperation() == OperationDefinition.Operation.MUTATION ? 1 : 0;
     }
 
     public int getCurrentDepth() {
         return currentDepth;
     }
 
+    public GraphQLQueryPlan getQueryPlan() {
+        return queryPlan;
+    }
+
+    public GraphQLRequestScope getRequestScope() {
+        return requestScope;
+    }
+
+    public GraphQLExecutionPath getPath() {
+        return path;
+    }
+
+    public GraphQLIncrementalDelivery getIncrementalDelivery() {
+        return incrementalDelivery;
+    }
+
     public GraphQLSchema getGraphQLSchema() {
         return delegate.getGraphQLSchema();
     }
@@ -94,7 +159,10 @@ class GraphQLExecutionContext extends ExecutionContext {
     }
 
     public void addError(GraphQLError error) {
-        delegate.addError(error);
+        // fields of the same execution may fail concurrently
+        synchronized (delegate) {
+            delegate.addError(error);
+        }
     }
 
     public List<GraphQLError> getErrors() {
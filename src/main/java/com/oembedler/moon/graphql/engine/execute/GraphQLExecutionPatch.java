@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+
+import java.util.List;
+
+/**
+ * Subsequent payload of an incremental result: data of a deferred fragment merged into the object at
+ * <code>path</code>, or a single streamed list item where the last path segment is the item index.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLExecutionPatch implements ExecutionResult {
+
+    private final List<Object> path;
+    private final Object data;
+    private final List<GraphQLError> errors;
+
+    public GraphQLExecutionPatch(List<Object> path, Object data, List<GraphQLError> errors) {
+        this.path = path;
+        this.data = data;
+        this.errors = errors;
+    }
+
+    public List<Object> getPath() {
+        return path;
+    }
+
+    @Override
+    public Object getData() {
+        return data;
+    }
+
+    @Override
+    public List<GraphQLError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "GraphQLExecutionPatch{" +
+                "path=" + path +
+                ", data=" + data +
+                ", errors=" + errors +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable response path of a value being completed, segments are field response names and list indexes.
+ * Segments are linked to their parent so extending a path does not copy it.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLExecutionPath {
+
+    public static final GraphQLExecutionPath ROOT = new GraphQLExecutionPath(null, null, 0);
+
+    private final GraphQLExecutionPath parent;
+    private final Object segment;
+    private final int length;
+
+    private GraphQLExecutionPath(GraphQLExecutionPath parent, Object segment, int length) {
+        this.parent = parent;
+        this.segment = segment;
+        this.length = length;
+    }
+
+    public GraphQLExecutionPath segment(String fieldName) {
+        return new GraphQLExecutionPath(this, fieldName, length + 1);
+    }
+
+    public GraphQLExecutionPath segment(int index) {
+        return new GraphQLExecutionPath(this, index, length + 1);
+    }
+
+    public List<Object> toList() {
+        Object[] segments = new Object[length];
+        GraphQLExecutionPath path = this;
+        for (int i = length - 1; i >= 0; i--) {
+            segments[i] = path.segment;
+            path = path.parent;
+        }
+        return Arrays.asList(segments);
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool shared by concurrent query executions. Meant to be created once (e.g. as a Spring bean)
+ * and closed on shutdown, pass it to {@link GraphQLQueryExecutor#executionResources(GraphQLExecutionResources)}.
+ * <p>
+ * Owned pool has a bounded queue, tasks which do not fit are handled by the given rejection policy.
+ * By default they are executed by the submitting thread, a task rejected by a policy which throws is executed by the joining thread.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLExecutionResources implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLExecutionResources.class);
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MS = 5000;
+
+    // available on JDK 21+, looked up reflectively as library is compiled for Java 8
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutorFactory();
+
+    private final ExecutorService executorService;
+    private final boolean managed;
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MS;
+
+    public GraphQLExecutionResources() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GraphQLExecutionResources(int poolSize) {
+        this(poolSize, DEFAULT_QUEUE_CAPACITY, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public GraphQLExecutionResources(int poolSize, int queueCapacity, RejectedExecutionHandler rejectedExecutionHandler) {
+        Assert.isTrue(poolSize > 0, "Pool size must be positive");
+        Assert.notNull(rejectedExecutionHandler, "Rejected execution handler can not be null");
+        BlockingQueue<Runnable> workQueue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                workQueue, createThreadFactory("graphql-execution-" + POOL_NUMBER.incrementAndGet() + "-"), rejectedExecutionHandler);
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.executorService = threadPoolExecutor;
+        this.managed = true;
+    }
+
+    /**
+     * Wraps externally managed executor service, it is not shut down on {@link #close()}.
+     */
+    public GraphQLExecutionResources(ExecutorService executorService) {
+        this(executorService, false);
+    }
+
+    private GraphQLExecutionResources(ExecutorService executorService, boolean managed) {
+        Assert.notNull(executorService, "Executor service can not be null");
+        this.executorService = executorService;
+        this.managed = managed;
+    }
+
+    /**
+     * Creates resources which start a new virtual thread per field resolution, suitable for blocking data fetchers.
+     * Falls back to a bounded pool of platform threads when virtual threads are not supported by the running JVM.
+     */
+    public static GraphQLExecutionResources virtualThreadPerTask() {
+        if (isVirtualThreadSupported()) {
+            try {
+                return new GraphQLExecutionResources((ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null), true);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Virtual thread executor can not be created, falling back to platform threads", e);
+            }
+        }
+        return new GraphQLExecutionResources(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates resources owning a work-stealing pool of the given parallelism, the pool is shut down on {@link #close()}.
+     */
+    public static GraphQLExecutionResources workStealing(int parallelism) {
+        return new GraphQLExecutionResources(Executors.newWorkStealingPool(parallelism), true);
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    private static Method findVirtualThreadPerTaskExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    protected ThreadFactory createThreadFactory(final String namePrefix) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public boolean isManaged() {
+        return managed;
+    }
+
+    public boolean isShutdown() {
+        return executorService.isShutdown();
+    }
+
+    public long getShutdownTimeoutMillis() {
+        return shutdownTimeoutMillis;
+    }
+
+    public GraphQLExecutionResources setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (!managed || executorService.isShutdown())
+            return;
+
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Execution resources were not terminated within [{}] ms, interrupting running tasks", shutdownTimeoutMillis);
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -23,17 +23,17 @@ import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
 import graphql.ExecutionResult;
 import graphql.execution.ExecutionContext;
 import graphql.language.Field;
+import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLObjectType;
-import org.apache.commons.lang3.tuple.Pair;
-import rx.Observable;
-import rx.observables.MathObservable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedRuntimeException;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.RecursiveTask;
+import java.util.RandomAccess;
+import java.util.concurrent.*;
 
 /**
  * Idea was borrowed from <a href="https://github.com/nfl/graphql-rxjava"></a>
@@ -42,46 +42,148 @@ import java.util.concurrent.RecursiveTask;
  */
 class GraphQLExecutorServiceRxExecutionStrategy extends GraphQLDefaultRxExecutionStrategy {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLExecutorServiceRxExecutionStrategy.class);
+
+    public static final int DEFAULT_PARALLEL_LIST_THRESHOLD = 1024;
+    public static final int MIN_LIST_CHUNK_SIZE = 128;
+
     private final ExecutorService executorService;
+    private final int parallelListThreshold;
 
     public GraphQLExecutorServiceRxExecutionStrategy(GraphQLSchemaHolder graphQLSchemaHolder, ExecutorService executorService, int maxQueryDepth, int maxQueryComplexity) {
+        this(graphQLSchemaHolder, executorService, maxQueryDepth, maxQueryComplexity, DEFAULT_PARALLEL_LIST_THRESHOLD);
+    }
+
+    /**
+     * @param parallelListThreshold lists of at least that many elements are completed in parallel chunks, non positive value disables it
+     */
+    public GraphQLExecutorServiceRxExecutionStrategy(GraphQLSchemaHolder graphQLSchemaHolder, ExecutorService executorService, int maxQueryDepth, int maxQueryComplexity, int parallelListThreshold) {
         super(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity);
         this.executorService = executorService;
+        this.parallelListThreshold = parallelListThreshold;
     }
 
     public ExecutionResult doExecute(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, Map<String, List<Field>> fields) {
 
-        Map<String, RecursiveTask<ExecutionResult>> recursiveTaskMap = new LinkedHashMap<String, RecursiveTask<ExecutionResult>>();
+        List<FutureTask<ExecutionResult>> resolveFieldTasks = new ArrayList<>(fields.size());
+        List<GraphQLDeadline> deadlines = new ArrayList<>(fields.size());
         for (String fieldName : fields.keySet()) {
             final List<Field> fieldList = fields.get(fieldName);
-            RecursiveTask<ExecutionResult> resolveField = new RecursiveTask<ExecutionResult>() {
-                @Override
-                protected ExecutionResult compute() {
-                    return resolveField(executionContext, parentType, source, fieldList);
-                }
-            };
-            resolveField.fork();
-            recursiveTaskMap.put(fieldName, resolveField);
+            FutureTask<ExecutionResult> resolveFieldTask = new FutureTask<>(() -> resolveField(executionContext, parentType, source, fieldList));
+            deadlines.add(getFieldDeadline(executionContext, getFieldDefinition(executionContext, parentType, fieldList.get(0))));
+            try {
+                executorService.execute(resolveFieldTask);
+            } catch (RejectedExecutionException e) {
+                // not cancelled, rejected field is resolved by the joining thread like a rejected list chunk
+                LOGGER.debug("Field [{}] resolution rejected by executor service", fieldName);
+            }
+            resolveFieldTasks.add(resolveFieldTask);
+        }
+
+        List<ExecutionResult> fieldResults = new ArrayList<>(fields.size());
+        int idx = 0;
+        for (List<Field> fieldList : fields.values()) {
+            FutureTask<ExecutionResult> resolveFieldTask = resolveFieldTasks.get(idx);
+            ExecutionResult fieldResult = join(resolveFieldTask, deadlines.get(idx));
+            // only tasks which missed their deadline are cancelled
+            if (resolveFieldTask.isCancelled()) {
+                executionContext.addError(new FieldTimeoutError(fieldList.get(0).getName()));
+                fieldResult = unresolvedField(executionContext, parentType, fieldList);
+            }
+            fieldResults.add(fieldResult);
+            idx++;
+        }
+
+        return completeObject(executionContext, parentType, fields, fieldResults);
+    }
+
+    @Override
+    protected ExecutionResult completeValueForList(ExecutionContext executionContext, GraphQLList fieldType, List<Field> fields, List<Object> result) {
+        result = deferStreamedItems(executionContext, fieldType, fields, result);
+        final int size = result.size();
+        final int chunkSize = getListChunkSize(size);
+        if (chunkSize >= size)
+            return super.completeValueForList(executionContext, fieldType, fields, result);
+
+        final List<Object> items = result instanceof RandomAccess ? result : new ArrayList<>(result);
+        final Object[] resolvedValues = new Object[size];
+        final ExecutionResult[] pendingResults = new ExecutionResult[size];
+
+        // first chunk is completed by the calling thread, the rest is forked
+        List<FutureTask<Double>> chunkTasks = new ArrayList<>(size / chunkSize);
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, size);
+            FutureTask<Double> chunkTask = new FutureTask<>(() ->
+                    completeListElements(executionContext, fieldType, fields, items, chunkFrom, chunkTo, resolvedValues, pendingResults));
+            try {
+                executorService.execute(chunkTask);
+            } catch (RejectedExecutionException e) {
+                // not cancelled, rejected chunk is completed by the joining thread
+                LOGGER.debug("List chunk [{}, {}) rejected by executor service", chunkFrom, chunkTo);
+            }
+            chunkTasks.add(chunkTask);
         }
 
-        List<Observable<Pair<String, Object>>> observablesResult = new ArrayList<>();
-        List<Observable<Double>> observablesComplexity = new ArrayList<>();
+        double resolvedComplexity = completeListElements(executionContext, fieldType, fields, items, 0, chunkSize, resolvedValues, pendingResults);
+        for (FutureTask<Double> chunkTask : chunkTasks)
+            resolvedComplexity += join(chunkTask);
 
-        for (String fieldName : recursiveTaskMap.keySet()) {
-            List<Field> fieldList = fields.get(fieldName);
-            ExecutionResult executionResult = recursiveTaskMap.get(fieldName).join();
+        return completeList(resolvedValues, resolvedComplexity, pendingResults);
+    }
 
-            observablesResult.add(unwrapExecutionResult(fieldName, executionResult));
-            observablesComplexity.add(calculateFieldComplexity(executionContext, parentType, fieldList,
-                    executionResult != null ? ((GraphQLRxExecutionResult) executionResult).getComplexityObservable() : Observable.just(0.0)));
+    /**
+     * @return number of list elements completed by a single task, list is not split when it is not less than list size
+     */
+    protected int getListChunkSize(int listSize) {
+        if (parallelListThreshold <= 0 || listSize < parallelListThreshold)
+            return listSize;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        return Math.max(MIN_LIST_CHUNK_SIZE, (listSize + parallelism - 1) / parallelism);
+    }
 
+    protected <T> T join(FutureTask<T> resolveFieldTask) {
+        return join(resolveFieldTask, GraphQLDeadline.none());
+    }
+
+    /**
+     * @return task result or <code>null</code> when task is not done by the deadline, such task is cancelled
+     * and its thread is interrupted
+     */
+    protected <T> T join(FutureTask<T> resolveFieldTask, GraphQLDeadline deadline) {
+        try {
+            if (deadline.isExpired()) {
+                // task still waiting in the queue never starts once deadline has passed
+                resolveFieldTask.cancel(true);
+                return null;
+            }
+            // task still waiting in the queue is run by the joining thread, so nested levels never wait
+            // for a free thread of a bounded pool (no-op when task is already running or done)
+            resolveFieldTask.run();
+            // only a task running on another thread is waited for, joining thread is not blocked past the deadline
+            if (deadline.isBounded())
+                return resolveFieldTask.get(deadline.getRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            return resolveFieldTask.get();
+        } catch (TimeoutException e) {
+            resolveFieldTask.cancel(true);
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FieldResolutionRuntimeException("Interrupted while resolving field", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new FieldResolutionRuntimeException("Exception while resolving field", e.getCause());
         }
+    }
 
-        Observable<Map<String, Object>> result =
-                Observable.merge(observablesResult)
-                        .toMap(Pair::getLeft, Pair::getRight);
+    public static class FieldResolutionRuntimeException extends NestedRuntimeException {
+        private static final long serialVersionUID = 1L;
 
-        GraphQLRxExecutionResult graphQLRxExecutionResult = new GraphQLRxExecutionResult(result, Observable.just(executionContext.getErrors()), MathObservable.sumDouble(Observable.merge(observablesComplexity)));
-        return graphQLRxExecutionResult;
+        public FieldResolutionRuntimeException(String msg, Throwable cause) {
+            super(msg, cause);
+        }
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.execution.ConditionalNodes;
+import graphql.execution.ExecutionContext;
+import graphql.execution.TypeFromAST;
+import graphql.language.*;
+import graphql.schema.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same field collection as {@link graphql.execution.FieldCollector} except that fields of fragments marked
+ * with <code>@defer</code> are collected into separate groups, one per deferred fragment.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLFieldCollector {
+
+    private final ConditionalNodes conditionalNodes = new ConditionalNodes();
+    private final SchemaUtil schemaUtil = new SchemaUtil();
+
+    /**
+     * @param deferredFields receives groups of deferred fields, deferred fragments are collected inline when <code>null</code>
+     */
+    public void collectFields(ExecutionContext executionContext, GraphQLObjectType type, SelectionSet selectionSet, List<String> visitedFragments,
+                              Map<String, List<Field>> fields, List<Map<String, List<Field>>> deferredFields) {
+        for (Selection selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                collectField(executionContext, fields, (Field) selection);
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                if (!conditionalNodes.shouldInclude(executionContext, inlineFragment.getDirectives()) ||
+                        !doesTypeConditionMatch(executionContext, inlineFragment.getTypeCondition(), type))
+                    continue;
+                collectFields(executionContext, type, inlineFragment.getSelectionSet(), visitedFragments,
+                        getTargetFields(executionContext, inlineFragment.getDirectives(), fields, deferredFields), deferredFields);
+            } else if (selection instanceof FragmentSpread) {
+                FragmentSpread fragmentSpread = (FragmentSpread) selection;
+                if (visitedFragments.contains(fragmentSpread.getName()) || !conditionalNodes.shouldInclude(executionContext, fragmentSpread.getDirectives()))
+                    continue;
+                visitedFragments.add(fragmentSpread.getName());
+                FragmentDefinition fragmentDefinition = executionContext.getFragment(fragmentSpread.getName());
+                if (!conditionalNodes.shouldInclude(executionContext, fragmentDefinition.getDirectives()) ||
+                        !doesTypeConditionMatch(executionContext, fragmentDefinition.getTypeCondition(), type))
+                    continue;
+                collectFields(executionContext, type, fragmentDefinition.getSelectionSet(), visitedFragments,
+                        getTargetFields(executionContext, fragmentSpread.getDirectives(), fields, deferredFields), deferredFields);
+            }
+        }
+    }
+
+    private Map<String, List<Field>> getTargetFields(ExecutionContext executionContext, List<Directive> directives,
+                                                     Map<String, List<Field>> fields, List<Map<String, List<Field>>> deferredFields) {
+        if (deferredFields == null || !GraphQLDirectives.isDeferred(executionContext, directives))
+            return fields;
+        Map<String, List<Field>> deferredGroup = new LinkedHashMap<>();
+        deferredFields.add(deferredGroup);
+        return deferredGroup;
+    }
+
+    private void collectField(ExecutionContext executionContext, Map<String, List<Field>> fields, Field field) {
+        if (!conditionalNodes.shouldInclude(executionContext, field.getDirectives()))
+            return;
+        String name = field.getAlias() != null ? field.getAlias() : field.getName();
+        List<Field> fieldList = fields.get(name);
+        if (fieldList == null) {
+            fieldList = new ArrayList<>();
+            fields.put(name, fieldList);
+        }
+        fieldList.add(field);
+    }
+
+    private boolean doesTypeConditionMatch(ExecutionContext executionContext, TypeName typeCondition, GraphQLObjectType type) {
+        if (typeCondition == null)
+            return true;
+        GraphQLType conditionType = TypeFromAST.getTypeFromAST(executionContext.getGraphQLSchema(), typeCondition);
+        if (conditionType.equals(type))
+            return true;
+        if (conditionType instanceof GraphQLInterfaceType)
+            return schemaUtil.findImplementations(executionContext.getGraphQLSchema(), (GraphQLInterfaceType) conditionType).contains(type);
+        if (conditionType instanceof GraphQLUnionType)
+            return ((GraphQLUnionType) conditionType).getTypes().contains(type);
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects deferred fragments and streamed list items of a single execution. Deferred work is not started
+ * until patches are subscribed, work deferred while patches are being executed is picked up afterwards.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLIncrementalDelivery {
+
+    private final ConcurrentLinkedQueue<Observable<GraphQLExecutionPatch>> deferredPatches = new ConcurrentLinkedQueue<>();
+
+    public void defer(Observable<GraphQLExecutionPatch> patch) {
+        deferredPatches.add(patch);
+    }
+
+    public Observable<GraphQLExecutionPatch> getPatches() {
+        return Observable.defer(() -> {
+            List<Observable<GraphQLExecutionPatch>> patches = new ArrayList<>();
+            Observable<GraphQLExecutionPatch> patch;
+            while ((patch = deferredPatches.poll()) != null)
+                patches.add(patch);
+            if (patches.isEmpty())
+                return Observable.empty();
+            return Observable.merge(patches).concatWith(getPatches());
+        });
+    }
+}
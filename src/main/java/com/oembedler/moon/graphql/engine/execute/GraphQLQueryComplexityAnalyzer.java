@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import com.oembedler.moon.graphql.engine.dfs.GraphQLFieldDefinitionWrapper;
+import graphql.GraphQLException;
+import graphql.execution.ValuesResolver;
+import graphql.introspection.Introspection;
+import graphql.language.Field;
+import graphql.schema.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates query complexity and depth from the validated document before any data fetcher runs.
+ * Follows the same rules as the runtime calculation: every field scores <code>childScore + 1</code>
+ * unless <code>@GraphQLComplexity</code> expression is defined. Lists are scored as a single element,
+ * expressions are expected to scale by pagination arguments (e.g. <code>#first * #childScore</code>).
+ * Abstract types are scored by the most expensive possible type.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLQueryComplexityAnalyzer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLQueryComplexityAnalyzer.class);
+
+    private final GraphQLSchemaHolder graphQLSchemaHolder;
+    private final ValuesResolver valuesResolver = new ValuesResolver();
+    private final SchemaUtil schemaUtil = new SchemaUtil();
+
+    public GraphQLQueryComplexityAnalyzer(GraphQLSchemaHolder graphQLSchemaHolder) {
+        this.graphQLSchemaHolder = graphQLSchemaHolder;
+    }
+
+    public Analysis analyze(GraphQLExecutionContext executionContext, GraphQLObjectType operationRootType, Map<String, List<Field>> fields) {
+        return analyze(executionContext, operationRootType, fields, Collections.emptyList());
+    }
+
+    public Analysis analyze(GraphQLExecutionContext executionContext, GraphQLObjectType operationRootType, Map<String, List<Field>> fields,
+                            List<Map<String, List<Field>>> deferredFields) {
+        Analysis analysis = new Analysis();
+        analysis.complexity = calculateComplexity(executionContext, operationRootType, fields, executionContext.getCurrentDepth(), analysis);
+        for (Map<String, List<Field>> deferredGroup : deferredFields)
+            analysis.complexity += calculateComplexity(executionContext, operationRootType, deferredGroup, executionContext.getCurrentDepth(), analysis);
+        return analysis;
+    }
+
+    private double calculateComplexity(GraphQLExecutionContext executionContext, GraphQLObjectType parentType, Map<String, List<Field>> fields, int depth, Analysis analysis) {
+        if (fields.isEmpty())
+            return 0.0;
+
+        analysis.depth = Math.max(analysis.depth, depth);
+        double complexity = 0.0;
+        for (List<Field> fieldList : fields.values()) {
+            GraphQLFieldDefinition fieldDef = getFieldDefinition(executionContext, parentType, fieldList.get(0));
+            double childScore = calculateChildComplexity(executionContext, fieldDef.getType(), fieldList, depth + 1, analysis);
+            complexity += calculateFieldComplexity(executionContext, fieldDef, fieldList.get(0), childScore);
+        }
+        return complexity;
+    }
+
+    private double calculateChildComplexity(GraphQLExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, int depth, Analysis analysis) {
+        GraphQLType type = schemaUtil.getUnmodifiedType(fieldType);
+        List<GraphQLObjectType> possibleTypes = new ArrayList<>();
+        if (type instanceof GraphQLObjectType) {
+            possibleTypes.add((GraphQLObjectType) type);
+        } else if (type instanceof GraphQLInterfaceType) {
+            possibleTypes.addAll(schemaUtil.findImplementations(executionContext.getGraphQLSchema(), (GraphQLInterfaceType) type));
+        } else if (type instanceof GraphQLUnionType) {
+            for (GraphQLType unionMember : ((GraphQLUnionType) type).getTypes())
+                possibleTypes.add((GraphQLObjectType) unionMember);
+        }
+
+        double childScore = 0.0;
+        for (GraphQLObjectType possibleType : possibleTypes) {
+            Map<String, List<Field>> subFields = executionContext.getQueryPlan().getSubFields(executionContext, possibleType, fields);
+            double possibleTypeScore = calculateComplexity(executionContext, possibleType, subFields, depth, analysis);
+            // deferred fragments are executed later but still count
+            for (Map<String, List<Field>> deferredSubFields : executionContext.getQueryPlan().getDeferredSubFields(executionContext, possibleType, fields))
+                possibleTypeScore += calculateComplexity(executionContext, possibleType, deferredSubFields, depth, analysis);
+            childScore = Math.max(childScore, possibleTypeScore);
+        }
+        return childScore;
+    }
+
+    private double calculateFieldComplexity(GraphQLExecutionContext executionContext, GraphQLFieldDefinition fieldDef, Field field, double childScore) {
+        GraphQLFieldDefinitionWrapper graphQLFieldDefinitionWrapper = graphQLSchemaHolder.getFieldDefinitionResolverMap().get(fieldDef);
+        if (graphQLFieldDefinitionWrapper != null && graphQLFieldDefinitionWrapper.getComplexitySpelExpression() != null) {
+            Map<String, Object> argumentValues = executionContext.getQueryPlan().getArgumentValues(valuesResolver, fieldDef, field, executionContext.getVariables());
+            try {
+                Double complexity = graphQLFieldDefinitionWrapper.evaluateComplexity(childScore, argumentValues);
+                if (complexity != null)
+                    return complexity;
+            } catch (RuntimeException e) {
+                LOGGER.debug("Unable to estimate complexity of field [{}], default score is used", field.getName(), e);
+            }
+        }
+        return childScore + GraphQLAbstractRxExecutionStrategy.NODE_SCORE;
+    }
+
+    private GraphQLFieldDefinition getFieldDefinition(GraphQLExecutionContext executionContext, GraphQLObjectType parentType, Field field) {
+        return executionContext.getQueryPlan().getFieldDefinition(parentType, field, f -> {
+            GraphQLSchema graphQLSchema = executionContext.getGraphQLSchema();
+            if (graphQLSchema.getQueryType() == parentType) {
+                if (f.getName().equals(Introspection.SchemaMetaFieldDef.getName()))
+                    return Introspection.SchemaMetaFieldDef;
+                if (f.getName().equals(Introspection.TypeMetaFieldDef.getName()))
+                    return Introspection.TypeMetaFieldDef;
+            }
+            if (f.getName().equals(Introspection.TypeNameMetaFieldDef.getName()))
+                return Introspection.TypeNameMetaFieldDef;
+            GraphQLFieldDefinition fieldDefinition = parentType.getFieldDefinition(f.getName());
+            if (fieldDefinition == null)
+                throw new GraphQLException("unknown field " + f.getName());
+            return fieldDefinition;
+        });
+    }
+
+    public static class Analysis {
+        private double complexity;
+        private int depth;
+
+        public double getComplexity() {
+            return complexity;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+    }
+}
@@ -20,27 +20,33 @@
 package com.oembedler.moon.graphql.engine.execute;
 
 import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import com.oembedler.moon.graphql.engine.persisted.GraphQLPersistedQuery;
+import com.oembedler.moon.graphql.engine.persisted.GraphQLPersistedQueryRegistry;
+import com.oembedler.moon.graphql.engine.persisted.PersistedQueryIdMismatchError;
+import com.oembedler.moon.graphql.engine.persisted.PersistedQueryNotAllowedError;
+import com.oembedler.moon.graphql.engine.persisted.PersistedQueryNotFoundError;
 import graphql.ExecutionResult;
+import graphql.GraphQLError;
 import graphql.InvalidSyntaxError;
 import graphql.execution.ExecutionStrategy;
 import graphql.language.Document;
 import graphql.language.SourceLocation;
-import graphql.parser.Parser;
 import graphql.validation.ValidationError;
-import graphql.validation.Validator;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static graphql.Assert.assertNotNull;
 
@@ -55,11 +61,16 @@ public class GraphQLQueryExecutor {
     private ExecutionStrategy executionStrategy;
     private String requestQuery;
     private String operationName;
+    private String persistedQueryId;
     private Object context = Collections.emptyMap();
     private Map<String, Object> arguments = Collections.emptyMap();
     private ExecutorService executorService;
+    private boolean virtualThreads;
+    private Scheduler scheduler;
     private int maxQueryComplexity = -1;
     private int maxQueryDepth = -1;
+    private int parallelListThreshold = GraphQLExecutorServiceRxExecutionStrategy.DEFAULT_PARALLEL_LIST_THRESHOLD;
+    private long timeoutMillis;
 
 
     private GraphQLQueryExecutor(final GraphQLSchemaHolder graphQLSchemaHolder) {
@@ -85,6 +96,11 @@ public class GraphQLQueryExecutor {
         return this;
     }
 
+    public GraphQLQueryExecutor persistedQueryId(final String persistedQueryId) {
+        this.persistedQueryId = persistedQueryId;
+        return this;
+    }
+
     public GraphQLQueryExecutor operation(final String operationName) {
         this.operationName = operationName;
         return this;
@@ -115,51 +131,165 @@ public class GraphQLQueryExecutor {
         return this;
     }
 
-    public GraphQLQueryExecutor forkJoinExecutorService(int parallelism) {
-        this.executorService = Executors.newWorkStealingPool(parallelism);
+    public GraphQLQueryExecutor executionResources(GraphQLExecutionResources executionResources) {
+        Assert.notNull(executionResources, "Execution resources can not be null");
+        this.executorService = executionResources.getExecutorService();
         return this;
     }
 
-    public GraphQLQueryExecutor forkJoinExecutorService() {
-        this.executorService = Executors.newWorkStealingPool();
+    /**
+     * Resolves fields on virtual threads when running on JDK 21+, otherwise on a shared pool of platform threads.
+     */
+    public GraphQLQueryExecutor virtualThreadExecutorService() {
+        this.virtualThreads = true;
+        return this;
+    }
+
+    /**
+     * Resolves fields on the given scheduler without blocking while result is assembled.
+     */
+    public GraphQLQueryExecutor scheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * Lists of at least that many elements are completed in parallel chunks when an executor service is used.
+     * Non positive value disables parallel list completion.
+     */
+    public GraphQLQueryExecutor parallelListThreshold(int parallelListThreshold) {
+        this.parallelListThreshold = parallelListThreshold;
         return this;
     }
 
+    /**
+     * Request deadline counted from execution start (per event for subscriptions). Fields not resolved in time
+     * complete with <code>null</code> and {@link FieldTimeoutError}, fields are not fetched once deadline has passed.
+     * Deadline is available to data fetchers through {@link GraphQLDeadline#from(graphql.schema.DataFetchingEnvironment)}.
+     */
+    public GraphQLQueryExecutor timeout(long timeout, TimeUnit timeUnit) {
+        this.timeoutMillis = timeUnit.toMillis(timeout);
+        return this;
+    }
+
+    public GraphQLQueryExecutor forkJoinExecutorService(int parallelism) {
+        // work-stealing pools are shared by parallelism level instead of being created per request
+        return executionResources(graphQLSchemaHolder.getForkJoinExecutionResources(parallelism));
+    }
+
+    public GraphQLQueryExecutor forkJoinExecutorService() {
+        return forkJoinExecutorService(Runtime.getRuntime().availableProcessors());
+    }
+
     public <T extends ExecutionResult> T execute() {
 
         assertNotNull(arguments, "Arguments can't be null");
-        LOGGER.info("Executing request. Operation name: {}. Request: {} ", operationName, requestQuery);
+        LOGGER.info("Executing request. Operation name: {}. Persisted query: {}. Request: {} ", operationName, persistedQueryId, requestQuery);
 
-        Parser parser = new Parser();
         Document document;
+        List<ValidationError> validationErrors;
         try {
-            document = parser.parseDocument(requestQuery);
+            if (persistedQueryId == null) {
+                document = graphQLSchemaHolder.getDocumentCache().getDocument(requestQuery);
+                validationErrors = graphQLSchemaHolder.getValidationCache().validate(document);
+            } else {
+                GraphQLPersistedQueryRegistry persistedQueryRegistry = graphQLSchemaHolder.getPersistedQueryRegistry();
+                GraphQLPersistedQuery persistedQuery;
+                if (requestQuery == null) {
+                    persistedQuery = persistedQueryRegistry.getPersistedQuery(persistedQueryId);
+                    if (persistedQuery == null)
+                        return errorResult(new PersistedQueryNotFoundError(persistedQueryId));
+                } else if (persistedQueryRegistry.isQueryIdMatching(persistedQueryId, requestQuery)) {
+                    persistedQuery = persistedQueryRegistry.register(persistedQueryId, requestQuery);
+                    if (persistedQuery == null)
+                        return errorResult(new PersistedQueryNotAllowedError(persistedQueryId));
+                } else {
+                    return errorResult(new PersistedQueryIdMismatchError(persistedQueryId));
+                }
+                document = persistedQuery.getDocument();
+                validationErrors = persistedQuery.getValidationErrors();
+            }
         } catch (ParseCancellationException e) {
-            RecognitionException recognitionException = (RecognitionException) e.getCause();
-            SourceLocation sourceLocation = new SourceLocation(recognitionException.getOffendingToken().getLine(), recognitionException.getOffendingToken().getCharPositionInLine());
-            InvalidSyntaxError invalidSyntaxError = new InvalidSyntaxError(sourceLocation);
-            return (T) new GraphQLRxExecutionResult(Observable.just(null), Observable.just(Arrays.asList(invalidSyntaxError)));
+            return errorResult(createInvalidSyntaxError(e));
         }
 
-        Validator validator = new Validator();
-        List<ValidationError> validationErrors = validator.validateDocument(graphQLSchemaHolder.getGraphQLSchema(), document);
         if (validationErrors.size() > 0) {
             return (T) new GraphQLRxExecutionResult(Observable.just(null), Observable.just(validationErrors));
         }
 
+        RxExecution execution = new RxExecution(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity, getExecutionStrategy(), timeoutMillis);
+        ExecutionResult executionResult = execution.execute(graphQLSchemaHolder.getGraphQLSchema(), context, document, operationName, arguments);
+
+        return (T) (executionResult instanceof GraphQLRxExecutionResult ?
+                executionResult : new GraphQLRxExecutionResult(Observable.just(executionResult.getData()), Observable.just(executionResult.getErrors())));
+    }
+
+    /**
+     * Executes request query as a subscription operation against the root marked with
+     * {@link com.oembedler.moon.graphql.engine.stereotype.GraphQLSubscription}. Parser does not know the
+     * <code>subscription</code> keyword, so the operation is written as a query selecting exactly one root field.
+     * Nothing is executed until returned observable is subscribed, then a fully resolved result is emitted per
+     * event of the source stream. Failure of the source stream is emitted as a final result with an error.
+     */
+    public Observable<ExecutionResult> subscribe() {
+        Assert.notNull(graphQLSchemaHolder.getSubscriptionSchema(), "GraphQL schema declares no subscription root");
+
+        return Observable.defer(() -> {
+            assertNotNull(arguments, "Arguments can't be null");
+            LOGGER.info("Subscribing request. Operation name: {}. Request: {} ", operationName, requestQuery);
+
+            Document document;
+            List<ValidationError> validationErrors;
+            try {
+                document = graphQLSchemaHolder.getDocumentCache().getDocument(requestQuery);
+                validationErrors = graphQLSchemaHolder.getSubscriptionValidationCache().validate(document);
+            } catch (ParseCancellationException e) {
+                return Observable.<ExecutionResult>just(errorResult(createInvalidSyntaxError(e)));
+            }
+
+            if (validationErrors.size() > 0)
+                return Observable.<ExecutionResult>just(new GraphQLRxExecutionResult(Observable.just(null), Observable.just(validationErrors)));
+
+            RxExecution execution = new RxExecution(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity, getExecutionStrategy(), timeoutMillis);
+            return execution.subscribe(graphQLSchemaHolder.getSubscriptionSchema(), context, document, operationName, arguments);
+        });
+    }
+
+    /**
+     * Cold counterpart of {@link #execute()}: query is parsed, validated and executed on subscription
+     * and a single fully resolved result is emitted.
+     * <p>
+     * Subscribing thread is never blocked, the whole execution is subscribed on the configured {@link #scheduler(Scheduler)}
+     * or on {@link Schedulers#io()} when there is none.
+     */
+    public Observable<ExecutionResult> executeAsync() {
+        return Observable.defer(() -> this.<GraphQLRxExecutionResult>execute().<ExecutionResult>toObservable())
+                .subscribeOn(scheduler != null ? scheduler : Schedulers.io());
+    }
+
+    private ExecutionStrategy getExecutionStrategy() {
         if (executionStrategy == null) {
-            if (executorService == null) {
+            if (scheduler != null) {
+                executionStrategy = new GraphQLSchedulerRxExecutionStrategy(graphQLSchemaHolder, scheduler, maxQueryDepth, maxQueryComplexity);
+            } else if (virtualThreads) {
+                executionStrategy = new GraphQLVirtualThreadRxExecutionStrategy(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity, parallelListThreshold);
+            } else if (executorService == null) {
                 executionStrategy = new GraphQLDefaultRxExecutionStrategy(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity);
             } else {
-                executionStrategy = new GraphQLExecutorServiceRxExecutionStrategy(graphQLSchemaHolder, executorService, maxQueryDepth, maxQueryComplexity);
+                executionStrategy = new GraphQLExecutorServiceRxExecutionStrategy(graphQLSchemaHolder, executorService, maxQueryDepth, maxQueryComplexity, parallelListThreshold);
             }
         }
+        return executionStrategy;
+    }
 
-        RxExecution execution = new RxExecution(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity, executionStrategy);
-        ExecutionResult executionResult = execution.execute(graphQLSchemaHolder.getGraphQLSchema(), context, document, operationName, arguments);
+    private InvalidSyntaxError createInvalidSyntaxError(ParseCancellationException e) {
+        RecognitionException recognitionException = (RecognitionException) e.getCause();
+        SourceLocation sourceLocation = new SourceLocation(recognitionException.getOffendingToken().getLine(), recognitionException.getOffendingToken().getCharPositionInLine());
+        return new InvalidSyntaxError(sourceLocation);
+    }
 
-        return (T) (executionResult instanceof GraphQLRxExecutionResult ?
-                executionResult : new GraphQLRxExecutionResult(Observable.just(executionResult.getData()), Observable.just(executionResult.getErrors())));
+    private <T extends ExecutionResult> T errorResult(final GraphQLError error) {
+        return (T) new GraphQLRxExecutionResult(Observable.just(null), Observable.just(Arrays.asList(error)));
     }
 
 }
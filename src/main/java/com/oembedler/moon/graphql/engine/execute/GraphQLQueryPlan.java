@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.execution.ExecutionContext;
+import graphql.execution.ValuesResolver;
+import graphql.language.*;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Compiled execution plan of a single operation. Holds merged field maps per (parent type, selection set),
+ * resolved field definitions and argument values that do not depend on request variables.
+ * Plans are shared between requests with the same operation and the same boolean variable values
+ * (the only variables affecting field collection through <code>@include</code>, <code>@skip</code> and <code>@defer</code>).
+ * Fields of deferred fragments are kept apart from the fields completed within the initial result.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLQueryPlan {
+
+    private final GraphQLFieldCollector fieldCollector = new GraphQLFieldCollector();
+    private final ConcurrentHashMap<IdentityPair, CollectedFields> fieldsMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<IdentityPair, GraphQLFieldDefinition> fieldDefinitionMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<IdentityPair, Optional<Map<String, Object>>> argumentValuesMap = new ConcurrentHashMap<>();
+
+    private volatile Boolean incremental;
+
+    public Map<String, List<Field>> getFields(ExecutionContext executionContext, GraphQLObjectType type, SelectionSet selectionSet) {
+        return collectFields(executionContext, type, selectionSet).fields;
+    }
+
+    /**
+     * @return groups of fields of deferred fragments, one group per fragment
+     */
+    public List<Map<String, List<Field>>> getDeferredFields(ExecutionContext executionContext, GraphQLObjectType type, SelectionSet selectionSet) {
+        return collectFields(executionContext, type, selectionSet).deferredFields;
+    }
+
+    public Map<String, List<Field>> getSubFields(ExecutionContext executionContext, GraphQLObjectType type, List<Field> fields) {
+        return collectSubFields(executionContext, type, fields).fields;
+    }
+
+    /**
+     * @return groups of sub fields of deferred fragments, one group per fragment
+     */
+    public List<Map<String, List<Field>>> getDeferredSubFields(ExecutionContext executionContext, GraphQLObjectType type, List<Field> fields) {
+        return collectSubFields(executionContext, type, fields).deferredFields;
+    }
+
+    /**
+     * @return true when operation uses <code>@defer</code> or <code>@stream</code>
+     */
+    public boolean isIncremental(ExecutionContext executionContext) {
+        if (incremental == null) {
+            boolean result = GraphQLDirectives.isIncremental(executionContext.getOperationDefinition());
+            for (FragmentDefinition fragmentDefinition : executionContext.getFragmentsByName().values())
+                result = result || GraphQLDirectives.isIncremental(fragmentDefinition);
+            incremental = result;
+        }
+        return incremental;
+    }
+
+    private CollectedFields collectFields(ExecutionContext executionContext, GraphQLObjectType type, SelectionSet selectionSet) {
+        return fieldsMap.computeIfAbsent(new IdentityPair(type, selectionSet), key -> {
+            CollectedFields collectedFields = new CollectedFields();
+            fieldCollector.collectFields(executionContext, type, selectionSet, new ArrayList<>(), collectedFields.fields, collectedFields.deferredFields);
+            return collectedFields.freeze();
+        });
+    }
+
+    private CollectedFields collectSubFields(ExecutionContext executionContext, GraphQLObjectType type, List<Field> fields) {
+        return fieldsMap.computeIfAbsent(new IdentityPair(type, fields), key -> {
+            CollectedFields collectedFields = new CollectedFields();
+            List<String> visitedFragments = new ArrayList<>();
+            for (Field field : fields) {
+                if (field.getSelectionSet() != null)
+                    fieldCollector.collectFields(executionContext, type, field.getSelectionSet(), visitedFragments, collectedFields.fields, collectedFields.deferredFields);
+            }
+            return collectedFields.freeze();
+        });
+    }
+
+    public GraphQLFieldDefinition getFieldDefinition(GraphQLObjectType parentType, Field field, Function<Field, GraphQLFieldDefinition> fieldDefinitionResolver) {
+        IdentityPair key = new IdentityPair(parentType, field);
+        GraphQLFieldDefinition fieldDefinition = fieldDefinitionMap.get(key);
+        if (fieldDefinition == null) {
+            fieldDefinition = fieldDefinitionResolver.apply(field);
+            if (fieldDefinition != null)
+                fieldDefinitionMap.putIfAbsent(key, fieldDefinition);
+        }
+        return fieldDefinition;
+    }
+
+    public Map<String, Object> getArgumentValues(ValuesResolver valuesResolver, GraphQLFieldDefinition fieldDefinition, Field field, Map<String, Object> variables) {
+        Optional<Map<String, Object>> argumentValues = argumentValuesMap.computeIfAbsent(new IdentityPair(fieldDefinition, field), key -> {
+            if (hasVariableReference(field.getArguments()))
+                return Optional.empty();
+            return Optional.of(Collections.unmodifiableMap(valuesResolver.getArgumentValues(fieldDefinition.getArguments(), field.getArguments(), variables)));
+        });
+        return argumentValues.isPresent() ?
+                argumentValues.get() : valuesResolver.getArgumentValues(fieldDefinition.getArguments(), field.getArguments(), variables);
+    }
+
+    private static boolean hasVariableReference(List<? extends Node> nodes) {
+        for (Node node : nodes) {
+            if (node instanceof VariableReference || hasVariableReference(node.getChildren()))
+                return true;
+        }
+        return false;
+    }
+
+    public static Key createKey(ExecutionContext executionContext) {
+        Map<String, Boolean> booleanVariables = new TreeMap<>();
+        if (executionContext.getVariables() != null) {
+            executionContext.getVariables().forEach((name, value) -> {
+                if (value instanceof Boolean)
+                    booleanVariables.put(name, (Boolean) value);
+            });
+        }
+        return new Key(executionContext.getOperationDefinition(), booleanVariables);
+    }
+
+    public static class Key {
+        private final OperationDefinition operationDefinition;
+        private final Map<String, Boolean> booleanVariables;
+
+        public Key(OperationDefinition operationDefinition, Map<String, Boolean> booleanVariables) {
+            this.operationDefinition = operationDefinition;
+            this.booleanVariables = booleanVariables;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return operationDefinition == key.operationDefinition && booleanVariables.equals(key.booleanVariables);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(operationDefinition) + booleanVariables.hashCode();
+        }
+    }
+
+    private static class CollectedFields {
+        private Map<String, List<Field>> fields = new LinkedHashMap<>();
+        private List<Map<String, List<Field>>> deferredFields = new ArrayList<>();
+
+        public CollectedFields freeze() {
+            fields = Collections.unmodifiableMap(fields);
+            if (deferredFields.isEmpty()) {
+                deferredFields = Collections.emptyList();
+            } else {
+                List<Map<String, List<Field>>> frozenDeferredFields = new ArrayList<>(deferredFields.size());
+                for (Map<String, List<Field>> deferredGroup : deferredFields)
+                    frozenDeferredFields.add(Collections.unmodifiableMap(deferredGroup));
+                deferredFields = Collections.unmodifiableList(frozenDeferredFields);
+            }
+            return this;
+        }
+    }
+
+    private static class IdentityPair {
+        private final Object first;
+        private final Object second;
+
+        public IdentityPair(Object first, Object second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            IdentityPair that = (IdentityPair) o;
+            return first == that.first && second == that.second;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(first) + System.identityHashCode(second);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import com.oembedler.moon.graphql.engine.batch.GraphQLBatchLoader;
+import com.oembedler.moon.graphql.engine.batch.GraphQLDataLoader;
+import com.oembedler.moon.graphql.engine.batch.GraphQLDataLoaderRegistry;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State shared by all data fetchers of a single query execution.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLRequestScope {
+
+    private static final Object NULL_RESULT = new Object();
+
+    private final GraphQLDataLoaderRegistry dataLoaderRegistry = new GraphQLDataLoaderRegistry();
+    private final ConcurrentHashMap<Object, Object> memoizedResults = new ConcurrentHashMap<>();
+    private final GraphQLDeadline deadline;
+
+    public GraphQLRequestScope() {
+        this(GraphQLDeadline.none());
+    }
+
+    public GraphQLRequestScope(GraphQLDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return scope of the request being executed or a new detached scope when environment was not created by the engine
+     */
+    public static GraphQLRequestScope from(DataFetchingEnvironment environment) {
+        if (environment instanceof GraphQLDataFetchingEnvironment)
+            return ((GraphQLDataFetchingEnvironment) environment).getRequestScope();
+        return new GraphQLRequestScope();
+    }
+
+    public <K, V> GraphQLDataLoader<K, V> getDataLoader(GraphQLBatchLoader<K, V> batchLoader) {
+        return dataLoaderRegistry.getDataLoader(batchLoader);
+    }
+
+    public GraphQLDataLoaderRegistry getDataLoaderRegistry() {
+        return dataLoaderRegistry;
+    }
+
+    /**
+     * @return deadline of the whole request
+     */
+    public GraphQLDeadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Returns result stored for the key within this request or calls loader and stores its result.
+     * Failed calls are not stored. Calls memoized under the same key must return values of the same type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T memoize(Object key, Callable<T> loader) throws Exception {
+        Object result = memoizedResults.get(key);
+        if (result == null) {
+            T loadedResult = loader.call();
+            result = memoizedResults.putIfAbsent(key, loadedResult != null ? loadedResult : NULL_RESULT);
+            if (result == null)
+                return loadedResult;
+        }
+        return result != NULL_RESULT ? (T) result : null;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Synchronously completed value (leaf, list or object), carries no observables nor errors.
+ * Execution strategies read its data and complexity directly instead of subscribing.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLResolvedExecutionResult implements ExecutionResult {
+
+    private final Object data;
+    private final double complexity;
+
+    public GraphQLResolvedExecutionResult(Object data) {
+        this(data, 0.0);
+    }
+
+    public GraphQLResolvedExecutionResult(Object data, double complexity) {
+        this.data = data;
+        this.complexity = complexity;
+    }
+
+    @Override
+    public Object getData() {
+        return data;
+    }
+
+    public double getComplexity() {
+        return complexity;
+    }
+
+    @Override
+    public List<GraphQLError> getErrors() {
+        return Collections.emptyList();
+    }
+}
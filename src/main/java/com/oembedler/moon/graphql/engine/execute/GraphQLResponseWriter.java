@@ -0,0 +1,233 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.util.Assert;
+import rx.Observable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes execution result as <code>{"data": ..., "errors": [...]}</code> straight to a {@link JsonGenerator}.
+ * Top level fields are written one by one as they complete when the result exposes them
+ * (see {@link GraphQLRxExecutionResult#getFieldObservables()}), otherwise data is written once it is resolved.
+ * Errors are written last and the response is never serialized into an intermediate string, byte array or JSON tree.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLResponseWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public GraphQLResponseWriter() {
+        this(new ObjectMapper());
+    }
+
+    /**
+     * @param objectMapper provides generators and serializes values other than maps, lists, strings, numbers and booleans
+     */
+    public GraphQLResponseWriter(ObjectMapper objectMapper) {
+        Assert.notNull(objectMapper, "Object mapper can not be null");
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(ExecutionResult executionResult, OutputStream outputStream) throws IOException {
+        try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            write(executionResult, jsonGenerator);
+        }
+    }
+
+    public void write(ExecutionResult executionResult, JsonGenerator jsonGenerator) throws IOException {
+        try {
+            writeAsync(executionResult, jsonGenerator).toBlocking().lastOrDefault(null);
+        } catch (ResponseWriteRuntimeException e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * @return cold observable which completes once the whole response is written and flushed, generator is left open
+     */
+    public Observable<Void> writeAsync(ExecutionResult executionResult, JsonGenerator jsonGenerator) {
+        Observable<?> data;
+        Observable<List<? extends GraphQLError>> errors;
+        Map<String, Observable<?>> fields = null;
+        if (executionResult instanceof GraphQLRxExecutionResult) {
+            GraphQLRxExecutionResult rxExecutionResult = (GraphQLRxExecutionResult) executionResult;
+            data = rxExecutionResult.getDataObservable() != null ? rxExecutionResult.getDataObservable() : Observable.just(null);
+            errors = rxExecutionResult.getErrorsObservable();
+            fields = rxExecutionResult.getFieldObservables();
+        } else {
+            data = Observable.just(executionResult.getData());
+            errors = Observable.just(executionResult.getErrors());
+        }
+
+        Observable<Void> dataWritten = fields != null ? writeFields(jsonGenerator, fields) :
+                data.first().map(resolvedData -> write(() -> {
+                    jsonGenerator.writeFieldName("data");
+                    writeValue(jsonGenerator, resolvedData);
+                }));
+        return Observable.defer(() -> {
+                    write(jsonGenerator::writeStartObject);
+                    return dataWritten;
+                })
+                .lastOrDefault(null)
+                .flatMap(ignored -> errors.first())
+                .map(resolvedErrors -> write(() -> {
+                    writeErrors(jsonGenerator, resolvedErrors);
+                    jsonGenerator.writeEndObject();
+                    jsonGenerator.flush();
+                }));
+    }
+
+    /**
+     * Writes top level fields in order of completion, every field is flushed as soon as its value is resolved
+     * and the data map is never assembled for writing.
+     */
+    protected Observable<Void> writeFields(JsonGenerator jsonGenerator, Map<String, Observable<?>> fields) {
+        List<Observable<Map.Entry<String, Object>>> fieldValues = new ArrayList<>(fields.size());
+        for (Map.Entry<String, Observable<?>> field : fields.entrySet())
+            fieldValues.add(field.getValue().<Map.Entry<String, Object>>map(value -> new AbstractMap.SimpleImmutableEntry<>(field.getKey(), value)));
+
+        return Observable.defer(() -> {
+                    write(() -> jsonGenerator.writeObjectFieldStart("data"));
+                    return Observable.merge(fieldValues);
+                })
+                // merged values are emitted one at a time, generator is never written concurrently
+                .map(field -> write(() -> {
+                    jsonGenerator.writeFieldName(field.getKey());
+                    writeValue(jsonGenerator, field.getValue());
+                    jsonGenerator.flush();
+                }))
+                .concatWith(Observable.defer(() -> Observable.just(write(jsonGenerator::writeEndObject))));
+    }
+
+    protected void writeValue(JsonGenerator jsonGenerator, Object value) throws IOException {
+        if (value == null) {
+            jsonGenerator.writeNull();
+        } else if (value instanceof String) {
+            jsonGenerator.writeString((String) value);
+        } else if (value instanceof Map) {
+            jsonGenerator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                jsonGenerator.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(jsonGenerator, entry.getValue());
+            }
+            jsonGenerator.writeEndObject();
+        } else if (value instanceof Iterable) {
+            jsonGenerator.writeStartArray();
+            for (Object item : (Iterable<?>) value)
+                writeValue(jsonGenerator, item);
+            jsonGenerator.writeEndArray();
+        } else if (value instanceof Boolean) {
+            jsonGenerator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            jsonGenerator.writeNumber(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            jsonGenerator.writeNumber((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            jsonGenerator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            jsonGenerator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            jsonGenerator.writeNumber((BigInteger) value);
+        } else {
+            objectMapper.writeValue(jsonGenerator, value);
+        }
+    }
+
+    protected void writeErrors(JsonGenerator jsonGenerator, List<? extends GraphQLError> errors) throws IOException {
+        if (errors == null || errors.isEmpty())
+            return;
+
+        jsonGenerator.writeArrayFieldStart("errors");
+        for (GraphQLError error : errors) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("message", error.getMessage());
+            if (error.getLocations() != null && !error.getLocations().isEmpty()) {
+                jsonGenerator.writeArrayFieldStart("locations");
+                for (SourceLocation location : error.getLocations()) {
+                    jsonGenerator.writeStartObject();
+                    jsonGenerator.writeNumberField("line", location.getLine());
+                    jsonGenerator.writeNumberField("column", location.getColumn());
+                    jsonGenerator.writeEndObject();
+                }
+                jsonGenerator.writeEndArray();
+            }
+            List<Object> path = getPath(error);
+            if (path != null && !path.isEmpty()) {
+                jsonGenerator.writeArrayFieldStart("path");
+                for (Object segment : path) {
+                    if (segment instanceof Integer)
+                        jsonGenerator.writeNumber((Integer) segment);
+                    else
+                        jsonGenerator.writeString(String.valueOf(segment));
+                }
+                jsonGenerator.writeEndArray();
+            }
+            if (error.getErrorType() != null)
+                jsonGenerator.writeStringField("errorType", error.getErrorType().name());
+            jsonGenerator.writeEndObject();
+        }
+        jsonGenerator.writeEndArray();
+    }
+
+    /**
+     * @return response path of the error, field response names and list indexes, or <code>null</code> when it has none
+     */
+    protected List<Object> getPath(GraphQLError error) {
+        return error instanceof FieldExecutionError ? ((FieldExecutionError) error).getPath() : null;
+    }
+
+    private static Void write(JsonWrite jsonWrite) {
+        try {
+            jsonWrite.write();
+        } catch (IOException e) {
+            throw new ResponseWriteRuntimeException("Unable to write response", e);
+        }
+        return null;
+    }
+
+    private interface JsonWrite {
+        void write() throws IOException;
+    }
+
+    public static class ResponseWriteRuntimeException extends NestedRuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public ResponseWriteRuntimeException(String msg, IOException cause) {
+            super(msg, cause);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import graphql.GraphQLError;
 import rx.Observable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Idea was borrowed from <a href="https://github.com/nfl/graphql-rxjava"></a>
@@ -35,6 +36,13 @@ public class GraphQLRxExecutionResult implements ExecutionResult {
     private Observable<?> dataObservable;
     private Observable<List<? extends GraphQLError>> errorsObservable;
     private Observable<Double> queryComplexity;
+    private Map<String, Observable<?>> fieldObservables;
+
+    // blocking getters subscribe once and keep materialized values
+    private volatile boolean dataResolved;
+    private Object data;
+    private volatile List<GraphQLError> errors;
+    private volatile Double complexity;
 
     public GraphQLRxExecutionResult(Observable<?> data, Observable<List<? extends GraphQLError>> errors, Observable<Double> complexity) {
         dataObservable = data;
@@ -42,6 +50,15 @@ public class GraphQLRxExecutionResult implements ExecutionResult {
         queryComplexity = complexity;
     }
 
+    /**
+     * @param fields values of top level fields in selection order, each completes independently of the others
+     */
+    public GraphQLRxExecutionResult(Observable<?> data, Observable<List<? extends GraphQLError>> errors, Observable<Double> complexity,
+                                    Map<String, Observable<?>> fields) {
+        this(data, errors, complexity);
+        fieldObservables = fields;
+    }
+
     public GraphQLRxExecutionResult(Observable<?> data, Observable<List<? extends GraphQLError>> errors) {
         dataObservable = data;
         errorsObservable = errors;
@@ -65,17 +82,56 @@ public class GraphQLRxExecutionResult implements ExecutionResult {
         return queryComplexity;
     }
 
+    /**
+     * @return values of top level fields keyed by response name in selection order, each emitted as soon as its field
+     * completes, or <code>null</code> when data is available as a whole only
+     */
+    public Map<String, Observable<?>> getFieldObservables() {
+        return fieldObservables;
+    }
+
+    /**
+     * @return cold observable which emits this result once data, errors and complexity are resolved, nothing blocks while waiting
+     */
+    public Observable<ExecutionResult> toObservable() {
+        Observable<?> data = dataObservable != null ? dataObservable : Observable.just(null);
+        Observable<Double> complexity = queryComplexity != null ? queryComplexity : Observable.just(0.0);
+        return Observable.zip(data.first(), errorsObservable.first(), complexity.first(),
+                (resolvedData, resolvedErrors, resolvedComplexity) -> new GraphQLRxExecutionResult(Observable.just(resolvedData),
+                        Observable.just(resolvedErrors), Observable.just(resolvedComplexity)));
+    }
+
     public Double getComplexity() {
-        return queryComplexity.toBlocking().first();
+        if (complexity == null) {
+            synchronized (this) {
+                if (complexity == null)
+                    complexity = queryComplexity.toBlocking().first();
+            }
+        }
+        return complexity;
     }
 
     @Override
     public Object getData() {
-        return dataObservable.toBlocking().first();
+        if (!dataResolved) {
+            synchronized (this) {
+                if (!dataResolved) {
+                    data = dataObservable.toBlocking().first();
+                    dataResolved = true;
+                }
+            }
+        }
+        return data;
     }
 
     @Override
     public List<GraphQLError> getErrors() {
-        return (List<GraphQLError>) errorsObservable.toBlocking().first();
+        if (errors == null) {
+            synchronized (this) {
+                if (errors == null)
+                    errors = (List<GraphQLError>) errorsObservable.toBlocking().first();
+            }
+        }
+        return errors;
     }
 }
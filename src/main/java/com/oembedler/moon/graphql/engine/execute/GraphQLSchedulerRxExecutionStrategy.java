@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.language.Field;
+import graphql.schema.GraphQLObjectType;
+import rx.Observable;
+import rx.Scheduler;
+import rx.observables.MathObservable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves every field on a {@link Scheduler} once result is subscribed. Nothing is resolved nor awaited
+ * while the result tree is assembled, child selections are composed via <code>flatMap</code>.
+ * Use {@link rx.schedulers.Schedulers#io()} for blocking data fetchers and
+ * {@link rx.schedulers.Schedulers#computation()} for CPU bound ones.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLSchedulerRxExecutionStrategy extends GraphQLDefaultRxExecutionStrategy {
+
+    private final Scheduler scheduler;
+
+    public GraphQLSchedulerRxExecutionStrategy(GraphQLSchemaHolder graphQLSchemaHolder, Scheduler scheduler, int maxQueryDepth, int maxQueryComplexity) {
+        super(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public ExecutionResult doExecute(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, Map<String, List<Field>> fields) {
+
+        List<Observable<?>> observablesResult = new ArrayList<>(fields.size());
+        List<Observable<Double>> observablesComplexity = new ArrayList<>(fields.size());
+        for (String fieldName : fields.keySet()) {
+            final List<Field> fieldList = fields.get(fieldName);
+
+            Observable<ExecutionResult> executionResult =
+                    Observable.defer(() -> applyFieldDeadline(executionContext, parentType, fieldList,
+                            Observable.defer(() -> Observable.just(resolveField(executionContext, parentType, source, fieldList)))
+                                    .subscribeOn(getScheduler(parentType, fieldList))))
+                            .cache();
+
+            observablesResult.add(executionResult.flatMap(this::unwrapExecutionResult));
+            // failed resolution is reported by data, its complexity is not counted
+            observablesComplexity.add(calculateFieldComplexity(executionContext, parentType, fieldList,
+                    executionResult.onErrorResumeNext(Observable.just(null)).flatMap(this::getComplexityObservable)));
+        }
+
+        return createObjectResult(executionContext, parentType, fields, observablesResult, MathObservable.sumDouble(Observable.merge(observablesComplexity)));
+    }
+
+    /**
+     * Field deadline starts once result is subscribed, a timed out resolution is unsubscribed which interrupts
+     * the scheduler thread and the field completes with <code>null</code> and an error.
+     */
+    private Observable<ExecutionResult> applyFieldDeadline(ExecutionContext executionContext, GraphQLObjectType parentType, List<Field> fields,
+                                                           Observable<ExecutionResult> resolution) {
+        GraphQLDeadline deadline = getFieldDeadline(executionContext, getFieldDefinition(executionContext, parentType, fields.get(0)));
+        if (!deadline.isBounded())
+            return resolution;
+        return resolution
+                .timeout(deadline.getRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .onErrorResumeNext(e -> {
+                    if (!(e instanceof TimeoutException))
+                        return Observable.error(e);
+                    executionContext.addError(new FieldTimeoutError(fields.get(0).getName()));
+                    return Observable.defer(() -> Observable.just(unresolvedField(executionContext, parentType, fields)));
+                });
+    }
+
+    /**
+     * Override to pick a scheduler per field, e.g. computation scheduler for fields known to be CPU bound.
+     */
+    protected Scheduler getScheduler(GraphQLObjectType parentType, List<Field> fields) {
+        return scheduler;
+    }
+}
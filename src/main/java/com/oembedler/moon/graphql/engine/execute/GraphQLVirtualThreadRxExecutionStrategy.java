@@ -0,0 +1,40 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+
+/**
+ * Resolves every field on its own virtual thread (JDK 21+) so blocking data fetchers
+ * do not require a sized thread pool. On older JVMs falls back to a bounded pool of platform threads.
+ * Executor is owned by the schema holder and shut down together with it.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+class GraphQLVirtualThreadRxExecutionStrategy extends GraphQLExecutorServiceRxExecutionStrategy {
+
+    public GraphQLVirtualThreadRxExecutionStrategy(GraphQLSchemaHolder graphQLSchemaHolder, int maxQueryDepth, int maxQueryComplexity) {
+        this(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity, DEFAULT_PARALLEL_LIST_THRESHOLD);
+    }
+
+    public GraphQLVirtualThreadRxExecutionStrategy(GraphQLSchemaHolder graphQLSchemaHolder, int maxQueryDepth, int maxQueryComplexity, int parallelListThreshold) {
+        super(graphQLSchemaHolder, graphQLSchemaHolder.getVirtualThreadExecutionResources().getExecutorService(), maxQueryDepth, maxQueryComplexity, parallelListThreshold);
+    }
+}
@@ -20,7 +20,9 @@
 package com.oembedler.moon.graphql.engine.execute;
 
 import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionResult;
+import graphql.GraphQLError;
 import graphql.GraphQLException;
 import graphql.execution.*;
 import graphql.language.Document;
@@ -28,34 +30,103 @@ import graphql.language.Field;
 import graphql.language.OperationDefinition;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
+import rx.Observable;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
  */
 class RxExecution {
 
-    private FieldCollector fieldCollector = new FieldCollector();
     private final ExecutionStrategy strategy;
+    private final ExecutionStrategy mutationStrategy;
     private final GraphQLSchemaHolder graphQLSchemaHolder;
     private final int maxQueryDepth;
     private final int maxQueryComplexity;
+    private final long timeoutMillis;
 
     public RxExecution(GraphQLSchemaHolder graphQLSchemaHolder, int maxQueryDepth, int maxQueryComplexity, ExecutionStrategy strategy) {
+        this(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity, strategy, 0);
+    }
+
+    /**
+     * @param timeoutMillis time to resolve the operation (or every subscription event) from execution start,
+     *                      not positive value means no deadline
+     */
+    public RxExecution(GraphQLSchemaHolder graphQLSchemaHolder, int maxQueryDepth, int maxQueryComplexity, ExecutionStrategy strategy, long timeoutMillis) {
         this.strategy = strategy;
+        this.timeoutMillis = timeoutMillis;
         this.graphQLSchemaHolder = graphQLSchemaHolder;
         this.maxQueryDepth = maxQueryDepth;
         this.maxQueryComplexity = maxQueryComplexity;
+        // top level mutation fields are executed serially, nested selections are completed by the configured
+        // strategy as it is the one carried by execution context
+        this.mutationStrategy = strategy != null && strategy.getClass() == GraphQLDefaultRxExecutionStrategy.class ?
+                strategy : new GraphQLDefaultRxExecutionStrategy(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity);
     }
 
     public ExecutionResult execute(GraphQLSchema graphQLSchema, Object root, Document document, String operationName, Map<String, Object> args) {
+        GraphQLExecutionContext executionContext = createExecutionContext(graphQLSchema, root, document, operationName, args);
+        return executeOperation(executionContext, root, executionContext.getOperationDefinition());
+    }
+
+    /**
+     * Executes subscription operation against schema which query root is the subscription type. Root field is resolved
+     * once into the stream of source events, every event is completed as value of the root field within its own
+     * execution context and emitted as a resolved result in order of events.
+     */
+    public Observable<ExecutionResult> subscribe(GraphQLSchema subscriptionSchema, Object root, Document document, String operationName, Map<String, Object> args) {
+        GraphQLExecutionContext executionContext = createExecutionContext(subscriptionSchema, root, document, operationName, args);
+        GraphQLObjectType subscriptionType = subscriptionSchema.getQueryType();
+
+        Map<String, List<Field>> fields = executionContext.getQueryPlan().getFields(executionContext, subscriptionType, executionContext.getOperationDefinition().getSelectionSet());
+        if (fields.size() != 1)
+            return Observable.just(errorResult(new SubscriptionRootFieldsError(fields.size()), 0.0));
+
+        ExecutionResult limitExceededResult = checkQueryLimits(executionContext, subscriptionType, fields, Collections.emptyList());
+        if (limitExceededResult != null)
+            return Observable.just(limitExceededResult);
+
+        List<Field> fieldList = fields.values().iterator().next();
+        GraphQLAbstractRxExecutionStrategy subscriptionStrategy = strategy instanceof GraphQLAbstractRxExecutionStrategy ?
+                (GraphQLAbstractRxExecutionStrategy) strategy : new GraphQLDefaultRxExecutionStrategy(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity);
+
+        return subscriptionStrategy.resolveSubscriptionSource(executionContext, subscriptionType, root, fieldList)
+                .concatMap(event -> {
+                    GraphQLExecutionContext eventExecutionContext = createExecutionContext(subscriptionSchema, root, document, operationName, args);
+                    ExecutionResult executionResult;
+                    try {
+                        executionResult = subscriptionStrategy.completeSubscriptionEvent(eventExecutionContext, subscriptionType, fieldList, event);
+                    } catch (GraphQLAbstractRxExecutionStrategy.NonNullFieldRuntimeException e) {
+                        executionResult = nullDataResult(eventExecutionContext);
+                    }
+                    return ((GraphQLRxExecutionResult) awaitErrorsAfterData(eventExecutionContext, executionResult)).toObservable();
+                })
+                // failed source stream ends subscription with a final error result
+                .onErrorResumeNext(e -> Observable.just(errorResult(new ExceptionWhileDataFetching(e instanceof Exception ? (Exception) e : new RuntimeException(e)), 0.0)));
+    }
+
+    private GraphQLExecutionContext createExecutionContext(GraphQLSchema graphQLSchema, Object root, Document document, String operationName, Map<String, Object> args) {
         ExecutionContextBuilder executionContextBuilder = new ExecutionContextBuilder(new ValuesResolver());
         ExecutionContext executionContext = executionContextBuilder.build(graphQLSchema, strategy, root, document, operationName, args);
-        return executeOperation(executionContext, root, executionContext.getOperationDefinition());
+        return new GraphQLExecutionContext(executionContext,
+                GraphQLExecutionContext.getInitialDepth(executionContext), getQueryPlan(executionContext),
+                new GraphQLRequestScope(GraphQLDeadline.after(timeoutMillis, TimeUnit.MILLISECONDS)));
+    }
+
+    private GraphQLQueryPlan getQueryPlan(ExecutionContext executionContext) {
+        GraphQLQueryPlan.Key key = GraphQLQueryPlan.createKey(executionContext);
+        GraphQLQueryPlan queryPlan = graphQLSchemaHolder.getQueryPlanCache().get(key);
+        if (queryPlan == null) {
+            queryPlan = new GraphQLQueryPlan();
+            graphQLSchemaHolder.getQueryPlanCache().put(key, queryPlan);
+        }
+        return queryPlan;
     }
 
     private GraphQLObjectType getOperationRootType(GraphQLSchema graphQLSchema, OperationDefinition operationDefinition) {
@@ -71,19 +142,92 @@ class RxExecution {
     }
 
     private ExecutionResult executeOperation(
-            ExecutionContext executionContext,
+            GraphQLExecutionContext executionContext,
             Object root,
             OperationDefinition operationDefinition) {
         GraphQLObjectType operationRootType = getOperationRootType(executionContext.getGraphQLSchema(), executionContext.getOperationDefinition());
 
-        Map<String, List<Field>> fields = new LinkedHashMap<String, List<Field>>();
-        fieldCollector.collectFields(executionContext, operationRootType, operationDefinition.getSelectionSet(), new ArrayList<String>(), fields);
+        Map<String, List<Field>> fields = executionContext.getQueryPlan().getFields(executionContext, operationRootType, operationDefinition.getSelectionSet());
+        List<Map<String, List<Field>>> deferredFields = executionContext.getQueryPlan().getDeferredFields(executionContext, operationRootType, operationDefinition.getSelectionSet());
 
-        if (operationDefinition.getOperation() == OperationDefinition.Operation.MUTATION) {
-            return new GraphQLDefaultRxExecutionStrategy(graphQLSchemaHolder, maxQueryDepth, maxQueryComplexity)
-                                                      .execute(executionContext, operationRootType, root, fields);
-        } else {
-            return strategy.execute(executionContext, operationRootType, root, fields);
+        ExecutionResult limitExceededResult = checkQueryLimits(executionContext, operationRootType, fields, deferredFields);
+        if (limitExceededResult != null)
+            return limitExceededResult;
+
+        ExecutionResult executionResult;
+        try {
+            if (operationDefinition.getOperation() == OperationDefinition.Operation.MUTATION) {
+                executionResult = mutationStrategy.execute(executionContext, operationRootType, root, fields);
+            } else {
+                executionResult = strategy.execute(executionContext, operationRootType, root, fields);
+            }
+            if (strategy instanceof GraphQLAbstractRxExecutionStrategy) {
+                for (Map<String, List<Field>> deferredGroup : deferredFields)
+                    ((GraphQLAbstractRxExecutionStrategy) strategy).deferExecution(executionContext, operationRootType, root, deferredGroup);
+            }
+        } catch (GraphQLAbstractRxExecutionStrategy.NonNullFieldRuntimeException e) {
+            executionResult = nullDataResult(executionContext);
+        }
+        return awaitErrorsAfterData(executionContext, executionResult);
+    }
+
+    /**
+     * @return result reporting exceeded depth or complexity limit, <code>null</code> if operation is within limits
+     */
+    private ExecutionResult checkQueryLimits(GraphQLExecutionContext executionContext, GraphQLObjectType operationRootType,
+                                             Map<String, List<Field>> fields, List<Map<String, List<Field>>> deferredFields) {
+        if (maxQueryDepth <= 0 && maxQueryComplexity <= 0)
+            return null;
+
+        GraphQLQueryComplexityAnalyzer.Analysis analysis = new GraphQLQueryComplexityAnalyzer(graphQLSchemaHolder).analyze(executionContext, operationRootType, fields, deferredFields);
+        GraphQLError error = null;
+        if (maxQueryDepth > 0 && analysis.getDepth() > maxQueryDepth)
+            error = new QueryDepthLimitExceededError(analysis.getDepth(), maxQueryDepth);
+        else if (maxQueryComplexity > 0 && analysis.getComplexity() > maxQueryComplexity)
+            error = new QueryComplexityLimitExceededError(analysis.getComplexity(), maxQueryComplexity);
+        return error != null ? errorResult(error, analysis.getComplexity()) : null;
+    }
+
+    private static ExecutionResult errorResult(GraphQLError error, Double complexity) {
+        return new GraphQLRxExecutionResult(Observable.just(null), Observable.just(Arrays.asList(error)), Observable.just(complexity));
+    }
+
+    /**
+     * @return result of operation which non-null root field is <code>null</code>, the null propagates to the whole data
+     */
+    private static ExecutionResult nullDataResult(GraphQLExecutionContext executionContext) {
+        return new GraphQLRxExecutionResult(Observable.just(null), Observable.just(executionContext.getErrors()), Observable.just(0.0));
+    }
+
+    private ExecutionResult awaitErrorsAfterData(GraphQLExecutionContext executionContext, ExecutionResult executionResult) {
+        if (executionResult instanceof GraphQLResolvedExecutionResult) {
+            // operation resolved synchronously, errors are all collected already
+            GraphQLResolvedExecutionResult resolvedResult = (GraphQLResolvedExecutionResult) executionResult;
+            executionResult = new GraphQLRxExecutionResult(Observable.just(resolvedResult.getData()),
+                    Observable.just(executionContext.getErrors()), Observable.just(resolvedResult.getComplexity()));
+        }
+        if (!(executionResult instanceof GraphQLRxExecutionResult))
+            return executionResult;
+
+        // asynchronous fields may report errors after execute returns so errors are emitted once data is resolved
+        GraphQLRxExecutionResult rxExecutionResult = (GraphQLRxExecutionResult) executionResult;
+        Observable<?> data = GraphQLAbstractRxExecutionStrategy.nullOnNonNullViolation(rxExecutionResult.getDataObservable()).cache();
+        // complexity limit exceeded while resolving is reported once for the operation, resolved data is kept
+        Observable<Double> complexity = rxExecutionResult.getComplexityObservable()
+                .onErrorResumeNext(e -> {
+                    if (!(e instanceof GraphQLAbstractRxExecutionStrategy.QueryComplexityLimitExceededRuntimeException))
+                        return Observable.error(e);
+                    double exceededComplexity = ((GraphQLAbstractRxExecutionStrategy.QueryComplexityLimitExceededRuntimeException) e).getComplexity();
+                    executionContext.addError(new QueryComplexityLimitExceededError(exceededComplexity, maxQueryComplexity));
+                    return Observable.just(exceededComplexity);
+                })
+                .cache();
+        Observable<List<? extends GraphQLError>> errors = data.toList().flatMap(resolvedData -> complexity.last()).flatMap(resolvedComplexity -> rxExecutionResult.getErrorsObservable());
+        if (executionContext.getQueryPlan().isIncremental(executionContext)) {
+            // deferred work starts only once initial data is resolved
+            Observable<GraphQLExecutionPatch> patches = data.toList().flatMap(resolvedData -> executionContext.getIncrementalDelivery().getPatches()).cache();
+            return new GraphQLIncrementalExecutionResult(data, errors, complexity, patches);
         }
+        return new GraphQLRxExecutionResult(data, errors, complexity, rxExecutionResult.getFieldObservables());
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.persisted;
+
+import graphql.language.Document;
+import graphql.validation.ValidationError;
+
+import java.util.List;
+
+/**
+ * Persisted query parsed and validated against the schema once.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLPersistedQuery {
+
+    private final String queryId;
+    private final String query;
+    private final Document document;
+    private final List<ValidationError> validationErrors;
+
+    public GraphQLPersistedQuery(String queryId, String query, Document document, List<ValidationError> validationErrors) {
+        this.queryId = queryId;
+        this.query = query;
+        this.document = document;
+        this.validationErrors = validationErrors;
+    }
+
+    public String getQueryId() {
+        return queryId;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public List<ValidationError> getValidationErrors() {
+        return validationErrors;
+    }
+
+    public boolean isValid() {
+        return validationErrors.isEmpty();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.persisted;
+
+import com.oembedler.moon.graphql.engine.GraphQLDocumentValidator;
+import com.oembedler.moon.graphql.engine.cache.GraphQLLruCache;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.validation.ValidationError;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves persisted query identities to documents which are parsed and validated only once.
+ * Query identity is a lowercase hex encoded SHA-256 hash of the query text, identities are normalized to lowercase
+ * before any lookup. When manifest is the only source of queries runtime registration can be disabled.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class GraphQLPersistedQueryRegistry {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final GraphQLSchema graphQLSchema;
+    private final GraphQLPersistedQueryStore persistedQueryStore;
+    private final GraphQLLruCache<String, GraphQLPersistedQuery> preparedQueries;
+    private final Map<String, GraphQLPersistedQuery> manifestQueries;
+    private volatile boolean registrationEnabled = true;
+
+    public GraphQLPersistedQueryRegistry(final GraphQLSchema graphQLSchema, final GraphQLPersistedQueryStore persistedQueryStore) {
+        this(graphQLSchema, persistedQueryStore, Integer.MAX_VALUE);
+    }
+
+    public GraphQLPersistedQueryRegistry(final GraphQLSchema graphQLSchema, final GraphQLPersistedQueryStore persistedQueryStore, final int maxPreparedQueries) {
+        Assert.notNull(graphQLSchema, "GraphQL schema can not be null");
+        Assert.notNull(persistedQueryStore, "Persisted query store can not be null");
+        this.graphQLSchema = graphQLSchema;
+        this.persistedQueryStore = persistedQueryStore;
+        this.preparedQueries = new GraphQLLruCache<>(maxPreparedQueries);
+        this.manifestQueries = persistedQueryStore instanceof ManifestGraphQLPersistedQueryStore ?
+                prepareManifest((ManifestGraphQLPersistedQueryStore) persistedQueryStore) : Collections.emptyMap();
+    }
+
+    /**
+     * Manifest queries are prepared up front and kept for the registry lifetime, an invalid query fails startup.
+     */
+    protected Map<String, GraphQLPersistedQuery> prepareManifest(final ManifestGraphQLPersistedQueryStore manifestStore) {
+        Map<String, GraphQLPersistedQuery> queries = new HashMap<>();
+        manifestStore.getManifestQueries().forEach((queryId, query) -> {
+            GraphQLPersistedQuery persistedQuery = prepare(queryId, query);
+            if (!persistedQuery.isValid())
+                throw new ManifestGraphQLPersistedQueryStore.ManifestLoadingRuntimeException(
+                        "Persisted query [" + queryId + "] is not valid: " + persistedQuery.getValidationErrors());
+            queries.put(queryId, persistedQuery);
+        });
+        return Collections.unmodifiableMap(queries);
+    }
+
+    /**
+     * @param queryId persisted query identity
+     * @return prepared query or <code>null</code> when store has no query for a given identity
+     */
+    public GraphQLPersistedQuery getPersistedQuery(final String queryId) {
+        Assert.notNull(queryId, "Persisted query identity can not be null");
+        final String normalizedQueryId = normalizeQueryId(queryId);
+        GraphQLPersistedQuery persistedQuery = manifestQueries.get(normalizedQueryId);
+        if (persistedQuery != null)
+            return persistedQuery;
+        persistedQuery = preparedQueries.get(normalizedQueryId);
+        if (persistedQuery == null) {
+            String query = persistedQueryStore.getQuery(normalizedQueryId);
+            if (query != null) {
+                persistedQuery = prepare(normalizedQueryId, query);
+                preparedQueries.put(normalizedQueryId, persistedQuery);
+            }
+        }
+        return persistedQuery;
+    }
+
+    /**
+     * Registers query under a given identity. Only queries passing validation are persisted.
+     *
+     * @param queryId persisted query identity, must match SHA-256 hash of the query
+     * @param query   query text
+     * @return prepared query or <code>null</code> when query is not in manifest and runtime registration is disabled
+     */
+    public GraphQLPersistedQuery register(final String queryId, final String query) {
+        Assert.isTrue(isQueryIdMatching(queryId, query), "Persisted query identity does not match query hash");
+        final String normalizedQueryId = normalizeQueryId(queryId);
+        GraphQLPersistedQuery persistedQuery = manifestQueries.get(normalizedQueryId);
+        if (persistedQuery != null || !registrationEnabled)
+            return persistedQuery;
+        persistedQuery = preparedQueries.get(normalizedQueryId);
+        if (persistedQuery == null) {
+            persistedQuery = prepare(normalizedQueryId, query);
+            if (persistedQuery.isValid()) {
+                persistedQueryStore.putQuery(normalizedQueryId, query);
+                preparedQueries.put(normalizedQueryId, persistedQuery);
+            }
+        }
+        return persistedQuery;
+    }
+
+    public boolean isQueryIdMatching(final String queryId, final String query) {
+        return queryId != null && query != null && queryId.equalsIgnoreCase(computeQueryId(query));
+    }
+
+    protected String normalizeQueryId(final String queryId) {
+        return queryId.toLowerCase(Locale.ROOT);
+    }
+
+    protected GraphQLPersistedQuery prepare(final String queryId, final String query) {
+        Document document = new Parser().parseDocument(query);
+        List<ValidationError> validationErrors = new GraphQLDocumentValidator().validateDocument(graphQLSchema, document);
+        return new GraphQLPersistedQuery(queryId, query, document, Collections.unmodifiableList(validationErrors));
+    }
+
+    public GraphQLPersistedQueryStore getPersistedQueryStore() {
+        return persistedQueryStore;
+    }
+
+    public GraphQLLruCache<String, GraphQLPersistedQuery> getPreparedQueries() {
+        return preparedQueries;
+    }
+
+    public Map<String, GraphQLPersistedQuery> getManifestQueries() {
+        return manifestQueries;
+    }
+
+    public boolean isRegistrationEnabled() {
+        return registrationEnabled;
+    }
+
+    /**
+     * @param registrationEnabled <code>false</code> to serve manifest queries only, queries sent by clients are not persisted
+     */
+    public GraphQLPersistedQueryRegistry setRegistrationEnabled(boolean registrationEnabled) {
+        this.registrationEnabled = registrationEnabled;
+        return this;
+    }
+
+    public static String computeQueryId(final String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0f];
+                hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0f];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm is not available", e);
+        }
+    }
+}
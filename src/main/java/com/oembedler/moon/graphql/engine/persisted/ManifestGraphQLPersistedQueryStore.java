@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.persisted;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oembedler.moon.graphql.engine.GraphQLSchemaConfig;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Persisted query store pre-populated from a JSON manifest of <code>{"queryId": "query text"}</code> entries.
+ * Manifest is read and every identity is checked against SHA-256 hash of its query on construction.
+ * Manifest queries are never evicted, queries registered later are kept in a separate bounded store.
+ * Identities are expected in lowercase as normalized by {@link GraphQLPersistedQueryRegistry}.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class ManifestGraphQLPersistedQueryStore implements GraphQLPersistedQueryStore {
+
+    public static final class ManifestLoadingRuntimeException extends NestedRuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public ManifestLoadingRuntimeException(String msg) {
+            super(msg);
+        }
+
+        public ManifestLoadingRuntimeException(String msg, Throwable cause) {
+            super(msg, cause);
+        }
+    }
+
+    private final Map<String, String> manifestQueries;
+    private final GraphQLPersistedQueryStore registeredQueries;
+
+    public ManifestGraphQLPersistedQueryStore(final Resource manifest, final GraphQLSchemaConfig graphQLSchemaConfig) {
+        this(manifest, new InMemoryGraphQLPersistedQueryStore(graphQLSchemaConfig.getPersistedQueryCacheSize()));
+    }
+
+    public ManifestGraphQLPersistedQueryStore(final Resource manifest, final GraphQLPersistedQueryStore registeredQueries) {
+        Assert.notNull(manifest, "Persisted query manifest can not be null");
+        Assert.notNull(registeredQueries, "Persisted query store can not be null");
+        this.manifestQueries = Collections.unmodifiableMap(loadManifest(manifest));
+        this.registeredQueries = registeredQueries;
+    }
+
+    protected Map<String, String> loadManifest(final Resource manifest) {
+        Map<String, String> entries;
+        try (InputStream is = manifest.getInputStream()) {
+            entries = new ObjectMapper().readValue(is, new TypeReference<LinkedHashMap<String, String>>() {
+            });
+        } catch (IOException e) {
+            throw new ManifestLoadingRuntimeException("Can not load persisted query manifest [" + manifest + "]", e);
+        }
+        if (entries == null)
+            throw new ManifestLoadingRuntimeException("Persisted query manifest [" + manifest + "] is empty");
+
+        Map<String, String> queries = new LinkedHashMap<>(entries.size());
+        entries.forEach((queryId, query) -> {
+            if (query == null || !queryId.equalsIgnoreCase(GraphQLPersistedQueryRegistry.computeQueryId(query)))
+                throw new ManifestLoadingRuntimeException("Persisted query identity [" + queryId + "] of manifest [" + manifest + "] does not match query hash");
+            queries.put(queryId.toLowerCase(Locale.ROOT), query);
+        });
+        return queries;
+    }
+
+    @Override
+    public String getQuery(final String queryId) {
+        String query = manifestQueries.get(queryId);
+        return query != null ? query : registeredQueries.getQuery(queryId);
+    }
+
+    @Override
+    public void putQuery(final String queryId, final String query) {
+        if (!manifestQueries.containsKey(queryId))
+            registeredQueries.putQuery(queryId, query);
+    }
+
+    /**
+     * @return queries of the manifest keyed by identity
+     */
+    public Map<String, String> getManifestQueries() {
+        return manifestQueries;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.engine.execute;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares assembly of object results by {@link GraphQLDefaultRxExecutionStrategy#assembleResult(Iterable, List)}
+ * with the former zip of every field with its name, merge and <code>toMap</code>. Not asserting, run manually.
+ *
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+@Ignore("benchmark, run manually")
+public class GraphQLResultAssemblyBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLResultAssemblyBenchmarkTest.class);
+
+    private static final int FIELDS_PER_RUN = 500_000;
+    private static final int WARMUP_RUNS = 3;
+
+    private final GraphQLDefaultRxExecutionStrategy strategy = new GraphQLDefaultRxExecutionStrategy(null, -1, -1);
+    private long assembledFields;
+
+    @Test
+    public void assembleResult() {
+        for (boolean pending : new boolean[]{false, true}) {
+            for (int size : new int[]{10, 50, 200}) {
+                List<String> fieldNames = new ArrayList<>(size);
+                List<Object> fieldValues = new ArrayList<>(size);
+                List<Observable<?>> fieldObservables = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    fieldNames.add("field" + i);
+                    // resolved values are passed as is, only pending ones as observables
+                    Observable<Integer> fieldObservable = pending ? Observable.just(i).map(value -> value) : Observable.just(i);
+                    fieldValues.add(pending ? fieldObservable : i);
+                    fieldObservables.add(fieldObservable);
+                }
+
+                int iterations = FIELDS_PER_RUN / size;
+                for (int run = 0; run < WARMUP_RUNS; run++) {
+                    measureMergeToMap(fieldNames, fieldObservables, iterations);
+                    measureAssembleResult(fieldNames, fieldValues, iterations);
+                }
+                long mergeToMapNanos = measureMergeToMap(fieldNames, fieldObservables, iterations);
+                long assembleResultNanos = measureAssembleResult(fieldNames, fieldValues, iterations);
+
+                LOGGER.info("{} fields [{}]: merge and toMap [{}] ns/field, assembleResult [{}] ns/field", pending ? "Pending" : "Resolved", size,
+                        String.format("%.1f", mergeToMapNanos / (double) iterations / size),
+                        String.format("%.1f", assembleResultNanos / (double) iterations / size));
+            }
+        }
+        LOGGER.info("Assembled fields [{}]", assembledFields);
+    }
+
+    private long measureMergeToMap(List<String> fieldNames, List<Observable<?>> fieldObservables, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            List<Observable<Pair<String, Object>>> observablesResult = new ArrayList<>(fieldNames.size());
+            for (int idx = 0; idx < fieldNames.size(); idx++)
+                observablesResult.add(Observable.zip(Observable.just(fieldNames.get(idx)), fieldObservables.get(idx), Pair::of));
+            Map<String, Object> result = Observable.merge(observablesResult).toMap(Pair::getLeft, Pair::getRight).toBlocking().first();
+            consume(result);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long measureAssembleResult(List<String> fieldNames, List<Object> fieldValues, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            consume(strategy.assembleResult(fieldNames, fieldValues).toBlocking().first());
+        return System.nanoTime() - start;
+    }
+
+    private void consume(Map<String, Object> result) {
+        // keeps assembled maps reachable so the work is not optimized away
+        assembledFields += result.size();
+    }
+}
@@ -19,6 +19,7 @@
 
 package com.oembedler.moon.graphql.test;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oembedler.moon.graphql.GraphQLSchemaBeanFactory;
@@ -26,7 +27,11 @@ import com.oembedler.moon.graphql.SpringGraphQLSchemaBeanFactory;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaBuilder;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaConfig;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import com.oembedler.moon.graphql.engine.execute.FieldExecutionError;
+import com.oembedler.moon.graphql.engine.execute.FieldTimeoutError;
+import com.oembedler.moon.graphql.engine.execute.GraphQLExecutionResources;
 import com.oembedler.moon.graphql.engine.execute.GraphQLQueryExecutor;
+import com.oembedler.moon.graphql.engine.execute.GraphQLResponseWriter;
 import com.oembedler.moon.graphql.engine.execute.GraphQLRxExecutionResult;
 import com.oembedler.moon.graphql.test.simpleschema.ComputationDelaySchema;
 import org.junit.Assert;
@@ -42,11 +47,25 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.util.StreamUtils;
+import rx.Observable;
+import rx.schedulers.Schedulers;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
@@ -188,4 +207,273 @@ public class GenericComputationDelaySchemaParserTest {
         Assert.assertTrue(result.getErrors().size() == 0);
         LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
     }
+
+    @Test
+    public void asyncExecutionQuery_Success() throws IOException {
+        long start = System.currentTimeMillis();
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query(getClasspathResourceAsString("async-nodes.query"))
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Map<String, Object> data = (Map<String, Object>) result.getData();
+        Assert.assertEquals("color-1", ((Map<String, Object>) data.get("first")).get("name"));
+        Assert.assertEquals("color-2", ((Map<String, Object>) data.get("second")).get("name"));
+        Assert.assertEquals("rx-3", data.get("third"));
+        Assert.assertEquals(5.0, result.getComplexity(), 0.0);
+        // all delays overlap although execution is serial
+        Assert.assertTrue(System.currentTimeMillis() - start < 4000);
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+    }
+
+    @Test
+    public void concurrentExecutionQuerySharedResources_Success() throws IOException {
+        // queue fits all root fields so abort policy never rejects, pool is reused by both executions
+        try (GraphQLExecutionResources executionResources = new GraphQLExecutionResources(3, 3, new ThreadPoolExecutor.AbortPolicy())) {
+            for (int i = 0; i < 2; i++) {
+                long start = System.currentTimeMillis();
+                GraphQLRxExecutionResult result =
+                        GraphQLQueryExecutor
+                                .create(graphQLSchemaHolder)
+                                .executionResources(executionResources)
+                                .query(getClasspathResourceAsString("root-nodes.query"))
+                                .execute();
+
+                Assert.assertTrue(result.getErrors().size() == 0);
+                Assert.assertTrue(System.currentTimeMillis() - start < 4000);
+                LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+            }
+            Assert.assertFalse(executionResources.isShutdown());
+            executionResources.close();
+            Assert.assertTrue(executionResources.isShutdown());
+        }
+    }
+
+    @Test
+    public void rejectedFieldExecutionQuery_Success() throws IOException {
+        // single busy thread and no queue, the second root field is rejected by abort policy and resolved inline
+        try (GraphQLExecutionResources executionResources = new GraphQLExecutionResources(1, 0, new ThreadPoolExecutor.AbortPolicy())) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .executionResources(executionResources)
+                            .query("{first: color(id: \"1\") {id} second: color(id: \"2\") {id}}")
+                            .execute();
+
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            Assert.assertTrue(data.containsKey("first"));
+            Assert.assertTrue(data.containsKey("second"));
+            Assert.assertTrue(result.getErrors().isEmpty());
+        }
+    }
+
+    @Test
+    public void forkJoinExecutionResourcesClose_Success() throws IOException {
+        GraphQLExecutionResources executionResources = graphQLSchemaHolder.getForkJoinExecutionResources(parallelism);
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .forkJoinExecutorService(parallelism)
+                        .query(getClasspathResourceAsString("root-nodes.query"))
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Assert.assertSame(executionResources, graphQLSchemaHolder.getForkJoinExecutionResources(parallelism));
+        // pools are released with the schema holder, a new one is created when holder is used afterwards
+        graphQLSchemaHolder.close();
+        Assert.assertTrue(executionResources.isShutdown());
+        Assert.assertNotSame(executionResources, graphQLSchemaHolder.getForkJoinExecutionResources(parallelism));
+    }
+
+    @Test
+    public void virtualThreadExecutionQuery_Success() throws IOException {
+        long start = System.currentTimeMillis();
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .virtualThreadExecutorService()
+                        .query(getClasspathResourceAsString("root-nodes.query"))
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        // blocking fields are resolved concurrently with or without virtual threads support
+        Assert.assertTrue(System.currentTimeMillis() - start < 4000);
+        LOGGER.info("Virtual threads: {}. Complexity: {}. Result: {}", GraphQLExecutionResources.isVirtualThreadSupported(),
+                result.getComplexity(), prettifyPrint(result.getData()));
+
+        // executor is released with the schema holder
+        GraphQLExecutionResources executionResources = graphQLSchemaHolder.getVirtualThreadExecutionResources();
+        graphQLSchemaHolder.close();
+        Assert.assertTrue(executionResources.isShutdown());
+        Assert.assertNotSame(executionResources, graphQLSchemaHolder.getVirtualThreadExecutionResources());
+    }
+
+    @Test
+    public void timeoutExecutionQueryFixedThreadPool_Success() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            long start = System.currentTimeMillis();
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .executorService(executorService)
+                            .timeout(500, TimeUnit.MILLISECONDS)
+                            .query(getClasspathResourceAsString("root-nodes.query"))
+                            .execute();
+
+            // blocked fields are cancelled once request deadline passes
+            Assert.assertTrue(System.currentTimeMillis() - start < 1500);
+            Assert.assertEquals(3, result.getErrors().size());
+            Assert.assertTrue(result.getErrors().stream().allMatch(error -> error instanceof FieldTimeoutError));
+            Map<String, Object> data = (Map<String, Object>) result.getData();
+            Assert.assertNull(data.get("color"));
+            LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timeoutNestedExecutionQueryFixedThreadPool_Success() throws IOException {
+        try (GraphQLExecutionResources executionResources = new GraphQLExecutionResources(2)) {
+            long start = System.currentTimeMillis();
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .executionResources(executionResources)
+                            .timeout(5, TimeUnit.SECONDS)
+                            .query("{__schema {types {fields {type {ofType {name}}}}}}")
+                            .execute();
+
+            // queued nested fields are run by the joining threads instead of waiting for a free pool thread
+            Assert.assertTrue(System.currentTimeMillis() - start < 3000);
+            Assert.assertTrue(result.getErrors().isEmpty());
+            Map<String, Object> schema = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("__schema");
+            Assert.assertFalse(((List<?>) schema.get("types")).isEmpty());
+        }
+    }
+
+    @Test
+    public void timeoutAsyncExecutionQuery_Success() throws IOException {
+        long start = System.currentTimeMillis();
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .timeout(1, TimeUnit.SECONDS)
+                        .query("{timed: timedRxName(id: \"1\") remaining: remainingMillis}")
+                        .execute();
+
+        Map<String, Object> data = (Map<String, Object>) result.getData();
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+        // field timeout is shorter than request deadline, timed out stream is unsubscribed
+        Assert.assertNull(data.get("timed"));
+        Assert.assertTrue(ComputationDelaySchema.TIMED_RX_NAME_UNSUBSCRIBED.get());
+        Assert.assertEquals(1, result.getErrors().size());
+        Assert.assertTrue(result.getErrors().get(0) instanceof FieldTimeoutError);
+        // resolvers see request deadline
+        long remaining = ((Number) data.get("remaining")).longValue();
+        Assert.assertTrue(remaining > 0 && remaining <= 1000);
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+    }
+
+    @Test
+    public void partialResultOnFieldErrors_Success() throws IOException {
+        String query = "{name: failingName(id: \"1\") rxName: rxFailingName(id: \"2\") failing {name required} remaining: remainingMillis}";
+        assertPartialResult(GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query).execute());
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            assertPartialResult(GraphQLQueryExecutor.create(graphQLSchemaHolder).executorService(executorService).query(query).execute());
+        } finally {
+            executorService.shutdown();
+        }
+        assertPartialResult(GraphQLQueryExecutor.create(graphQLSchemaHolder).scheduler(Schedulers.io()).query(query).execute());
+
+        GraphQLRxExecutionResult result = GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query).execute();
+        List<Map<String, Object>> errors = mapper.readValue(mapper.writeValueAsBytes(result.getErrors()), List.class);
+        Map<String, Object> nameError = errors.stream().filter(error -> Arrays.asList("name").equals(error.get("path"))).findFirst().get();
+        // client sees message of the data fetcher exception only
+        Assert.assertEquals("Exception while fetching data: Name of [1] is not available", nameError.get("message"));
+        Assert.assertFalse(nameError.containsKey("exception"));
+
+        // response writer reports the same message and path, nested ones included
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new GraphQLResponseWriter(mapper).write(GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query).execute(), outputStream);
+        List<Map<String, Object>> writtenErrors = (List<Map<String, Object>>) mapper.readValue(outputStream.toByteArray(), Map.class).get("errors");
+        Map<String, Object> requiredError = writtenErrors.stream().filter(error -> Arrays.asList("failing", "required").equals(error.get("path"))).findFirst().get();
+        Assert.assertEquals("Exception while fetching data: Required value is not available", requiredError.get("message"));
+        Assert.assertFalse(requiredError.containsKey("exception"));
+    }
+
+    @Test
+    public void streamingResponseWriter_Success() throws IOException {
+        for (boolean scheduler : new boolean[]{false, true}) {
+            GraphQLQueryExecutor queryExecutor = GraphQLQueryExecutor.create(graphQLSchemaHolder)
+                    .query("{slow: rxName(id: \"1\") name: failingName(id: \"2\") remaining: remainingMillis}");
+            if (scheduler)
+                queryExecutor.scheduler(Schedulers.io());
+            GraphQLRxExecutionResult result = queryExecutor.execute();
+            Assert.assertEquals(Arrays.asList("slow", "name", "remaining"), new ArrayList<>(result.getFieldObservables().keySet()));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            JsonGenerator jsonGenerator = mapper.getFactory().createGenerator(outputStream);
+            Observable<Void> written = new GraphQLResponseWriter(mapper).writeAsync(result, jsonGenerator).cache();
+            written.subscribe();
+
+            // fields are flushed as they complete, the slow one is still pending
+            long start = System.currentTimeMillis();
+            while (!new String(outputStream.toByteArray(), StandardCharsets.UTF_8).contains("\"remaining\"") && System.currentTimeMillis() - start < 1000)
+                Thread.yield();
+            String firstFields = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+            Assert.assertTrue(firstFields.startsWith("{\"data\":{"));
+            Assert.assertTrue(firstFields.contains("\"remaining\""));
+            Assert.assertFalse(firstFields.contains("\"slow\""));
+
+            written.toBlocking().lastOrDefault(null);
+            Map<String, Object> response = mapper.readValue(outputStream.toByteArray(), Map.class);
+            Map<String, Object> data = (Map<String, Object>) response.get("data");
+            Assert.assertEquals("rx-1", data.get("slow"));
+            Assert.assertTrue(data.containsKey("name"));
+            Assert.assertNull(data.get("name"));
+            List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+            Assert.assertEquals(1, errors.size());
+            Assert.assertEquals(Arrays.asList("name"), errors.get(0).get("path"));
+            LOGGER.info("Response: {}", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void assertPartialResult(GraphQLRxExecutionResult result) {
+        Map<String, Object> data = (Map<String, Object>) result.getData();
+        Assert.assertTrue(data.containsKey("name"));
+        Assert.assertNull(data.get("name"));
+        Assert.assertNull(data.get("rxName"));
+        // null of non-null field propagates to the closest nullable parent
+        Assert.assertTrue(data.containsKey("failing"));
+        Assert.assertNull(data.get("failing"));
+        Assert.assertNotNull(data.get("remaining"));
+
+        Assert.assertEquals(3, result.getErrors().size());
+        Assert.assertTrue(result.getErrors().stream().allMatch(error -> error instanceof FieldExecutionError));
+        Set<List<Object>> paths = result.getErrors().stream().map(error -> ((FieldExecutionError) error).getPath()).collect(Collectors.toSet());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(Arrays.asList("name"), Arrays.asList("rxName"), Arrays.asList("failing", "required"))), paths);
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+    }
+
+    @Test
+    public void schedulerExecutionQuery_Success() throws IOException {
+        long start = System.currentTimeMillis();
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .scheduler(Schedulers.io())
+                        .query(getClasspathResourceAsString("root-nodes.query"))
+                        .execute();
+        // nothing is resolved until result is subscribed
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Assert.assertTrue(System.currentTimeMillis() - start < 4000);
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+    }
 }
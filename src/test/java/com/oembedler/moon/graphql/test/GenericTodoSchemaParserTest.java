@@ -27,9 +27,27 @@ import com.oembedler.moon.graphql.engine.GraphQLQueryTemplate;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaBuilder;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaConfig;
 import com.oembedler.moon.graphql.engine.GraphQLSchemaHolder;
+import com.oembedler.moon.graphql.engine.ReflectionGraphQLDataFetcher;
+import com.oembedler.moon.graphql.engine.batch.GraphQLBatchLoader;
+import com.oembedler.moon.graphql.engine.cache.GraphQLFieldResultCache;
+import com.oembedler.moon.graphql.engine.dfs.GraphQLFieldDefinitionWrapper;
+import com.oembedler.moon.graphql.engine.execute.GraphQLExecutionPatch;
+import com.oembedler.moon.graphql.engine.execute.GraphQLIncrementalExecutionResult;
 import com.oembedler.moon.graphql.engine.execute.GraphQLQueryExecutor;
+import com.oembedler.moon.graphql.engine.execute.GraphQLResponseWriter;
 import com.oembedler.moon.graphql.engine.execute.GraphQLRxExecutionResult;
+import com.oembedler.moon.graphql.engine.execute.QueryComplexityLimitExceededError;
+import com.oembedler.moon.graphql.engine.execute.QueryDepthLimitExceededError;
+import com.oembedler.moon.graphql.engine.execute.SubscriptionRootFieldsError;
+import com.oembedler.moon.graphql.engine.persisted.GraphQLPersistedQueryRegistry;
+import com.oembedler.moon.graphql.engine.persisted.ManifestGraphQLPersistedQueryStore;
+import com.oembedler.moon.graphql.engine.persisted.PersistedQueryNotAllowedError;
+import com.oembedler.moon.graphql.engine.persisted.PersistedQueryIdMismatchError;
+import com.oembedler.moon.graphql.engine.persisted.PersistedQueryNotFoundError;
 import com.oembedler.moon.graphql.test.todoschema.TodoSchema;
+import com.oembedler.moon.graphql.test.todoschema.objecttype.UserObjectType;
+import graphql.ExecutionResult;
+import graphql.schema.DataFetcher;
 import org.junit.Assert;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -40,17 +58,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.rules.SpringClassRule;
 import org.springframework.test.context.junit4.rules.SpringMethodRule;
 import org.springframework.util.StreamUtils;
+import rx.Observable;
+import rx.schedulers.Schedulers;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
@@ -67,6 +97,20 @@ public class GenericTodoSchemaParserTest {
 
     private ObjectMapper mapper = new ObjectMapper();
 
+    public static final AtomicInteger ALL_USERS_BY_ROLE_CALLS = new AtomicInteger();
+    public static final AtomicInteger EVENT_LABEL_CALLS = new AtomicInteger();
+    public static final List<List<String>> TEAM_LEAD_BATCHES = new CopyOnWriteArrayList<>();
+    public static final GraphQLBatchLoader<String, UserObjectType> TEAM_LEAD_BATCH_LOADER = keys -> {
+        TEAM_LEAD_BATCHES.add(keys);
+        return keys.stream().map(key -> {
+            UserObjectType teamLead = new UserObjectType();
+            teamLead.setId(key);
+            teamLead.setName("Lead " + key);
+            teamLead.setRole(UserObjectType.ROLE.MANAGER);
+            return teamLead;
+        }).collect(Collectors.toList());
+    };
+
     @Configuration
     @ComponentScan(basePackages = "com.oembedler.moon.graphql.test.todoschema")
     public static class TodoSchemaConfiguration {
@@ -143,6 +187,219 @@ public class GenericTodoSchemaParserTest {
         LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
     }
 
+    @Test
+    public void viewerQueryDocumentCache_Success() throws IOException {
+        String query = "{viewer{ id, name }}";
+        long hitCount = graphQLSchemaHolder.getDocumentCache().getHitCount();
+        for (int i = 0; i < 3; i++) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .query(query)
+                            .execute();
+            Assert.assertTrue(result.getErrors().size() == 0);
+        }
+
+        Assert.assertTrue(graphQLSchemaHolder.getDocumentCache().getHitCount() - hitCount >= 2);
+    }
+
+    @Test
+    public void invalidQueryValidationCache_Success() throws IOException {
+        String query = "{viewer{ id, unknownField }}";
+        long hitCount = graphQLSchemaHolder.getValidationCache().getHitCount();
+        for (int i = 0; i < 2; i++) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .query(query)
+                            .execute();
+            Assert.assertTrue(result.getErrors().size() == 1);
+        }
+
+        Assert.assertTrue(graphQLSchemaHolder.getValidationCache().getHitCount() - hitCount >= 1);
+    }
+
+    @Test
+    public void viewerPersistedQuery_Success() throws IOException {
+        String query = "{viewer{ id, name }}";
+        String queryId = GraphQLPersistedQueryRegistry.computeQueryId(query);
+
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .persistedQueryId(queryId)
+                        .execute();
+        Assert.assertTrue(result.getErrors().size() == 1);
+        Assert.assertTrue(result.getErrors().get(0) instanceof PersistedQueryNotFoundError);
+
+        result = GraphQLQueryExecutor
+                .create(graphQLSchemaHolder)
+                .persistedQueryId("0000")
+                .query(query)
+                .execute();
+        Assert.assertTrue(result.getErrors().get(0) instanceof PersistedQueryIdMismatchError);
+
+        result = GraphQLQueryExecutor
+                .create(graphQLSchemaHolder)
+                .persistedQueryId(queryId)
+                .query(query)
+                .execute();
+        Assert.assertTrue(result.getErrors().size() == 0);
+
+        result = GraphQLQueryExecutor
+                .create(graphQLSchemaHolder)
+                .persistedQueryId(queryId)
+                .execute();
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Assert.assertNotNull(result.getData());
+    }
+
+    @Test
+    public void manifestPersistedQuery_Success() throws IOException {
+        String queryId = "612dae08fc8a2cdcccfa97b598c7f47b848ca5ed63b509bf17cebe3185a59382";
+        GraphQLPersistedQueryRegistry registry = new GraphQLPersistedQueryRegistry(graphQLSchemaHolder.getGraphQLSchema(),
+                new ManifestGraphQLPersistedQueryStore(new ClassPathResource("persisted-queries.json"), graphQLSchemaHolder.getGraphQLSchemaConfig()), 1);
+        // manifest queries are prepared on startup and not evicted by registered ones
+        Assert.assertTrue(registry.getManifestQueries().get(queryId).isValid());
+        registry.register(GraphQLPersistedQueryRegistry.computeQueryId("{viewer{ id }}"), "{viewer{ id }}");
+        registry.register(GraphQLPersistedQueryRegistry.computeQueryId("{viewer{ name }}"), "{viewer{ name }}");
+        Assert.assertSame(registry.getManifestQueries().get(queryId), registry.getPersistedQuery(queryId));
+        // identities are case insensitive, registered queries are found under any case
+        Assert.assertSame(registry.getManifestQueries().get(queryId), registry.getPersistedQuery(queryId.toUpperCase()));
+        String registeredQueryId = GraphQLPersistedQueryRegistry.computeQueryId("{viewer{ name }}");
+        Assert.assertSame(registry.getPersistedQuery(registeredQueryId), registry.getPersistedQuery(registeredQueryId.toUpperCase()));
+        Assert.assertEquals(1, registry.getPreparedQueries().size());
+
+        GraphQLPersistedQueryRegistry persistedQueryRegistry = graphQLSchemaHolder.getPersistedQueryRegistry();
+        graphQLSchemaHolder.setPersistedQueryRegistry(registry);
+        try {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .persistedQueryId(queryId)
+                            .execute();
+            Assert.assertTrue(result.getErrors().size() == 0);
+            Assert.assertNotNull(result.getData());
+
+            // manifest is the only source of queries, query sent by client is not persisted
+            registry.setRegistrationEnabled(false);
+            String query = "{viewer{ id name }}";
+            result = GraphQLQueryExecutor
+                    .create(graphQLSchemaHolder)
+                    .persistedQueryId(GraphQLPersistedQueryRegistry.computeQueryId(query))
+                    .query(query)
+                    .execute();
+            Assert.assertEquals(1, result.getErrors().size());
+            Assert.assertTrue(result.getErrors().get(0) instanceof PersistedQueryNotAllowedError);
+            Assert.assertNull(registry.getPersistedQuery(GraphQLPersistedQueryRegistry.computeQueryId(query)));
+
+            result = GraphQLQueryExecutor
+                    .create(graphQLSchemaHolder)
+                    .persistedQueryId(queryId)
+                    .query(registry.getManifestQueries().get(queryId).getQuery())
+                    .execute();
+            Assert.assertTrue(result.getErrors().size() == 0);
+        } finally {
+            graphQLSchemaHolder.setPersistedQueryRegistry(persistedQueryRegistry);
+        }
+    }
+
+    @Test
+    public void manifestPersistedQuery_Failure() throws IOException {
+        String mismatchingManifest = "{\"0000\": \"{viewer{ id }}\"}";
+        try {
+            new ManifestGraphQLPersistedQueryStore(new ByteArrayResource(mismatchingManifest.getBytes(StandardCharsets.UTF_8)), graphQLSchemaHolder.getGraphQLSchemaConfig());
+            Assert.fail("Manifest with identity not matching query hash is loaded");
+        } catch (ManifestGraphQLPersistedQueryStore.ManifestLoadingRuntimeException e) {
+            LOGGER.info("Manifest rejected: {}", e.getMessage());
+        }
+
+        String invalidQuery = "{viewer{ nonExistingField }}";
+        String invalidManifest = "{\"" + GraphQLPersistedQueryRegistry.computeQueryId(invalidQuery) + "\": \"" + invalidQuery + "\"}";
+        try {
+            new GraphQLPersistedQueryRegistry(graphQLSchemaHolder.getGraphQLSchema(),
+                    new ManifestGraphQLPersistedQueryStore(new ByteArrayResource(invalidManifest.getBytes(StandardCharsets.UTF_8)), graphQLSchemaHolder.getGraphQLSchemaConfig()));
+            Assert.fail("Manifest with invalid query is prepared");
+        } catch (ManifestGraphQLPersistedQueryStore.ManifestLoadingRuntimeException e) {
+            LOGGER.info("Manifest rejected: {}", e.getMessage());
+        }
+    }
+
+    @Test
+    public void viewerQueryPlanCache_Success() throws IOException {
+        String query = "query ViewerQueryPlan {viewer{ id, name }}";
+        long hitCount = graphQLSchemaHolder.getQueryPlanCache().getHitCount();
+        for (int i = 0; i < 3; i++) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .query(query)
+                            .execute();
+            Assert.assertTrue(result.getErrors().size() == 0);
+            Map<String, Object> viewer = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer");
+            Assert.assertTrue(viewer.containsKey("id") && viewer.containsKey("name"));
+        }
+
+        Assert.assertTrue(graphQLSchemaHolder.getQueryPlanCache().getHitCount() - hitCount >= 2);
+    }
+
+    @Test
+    public void viewerQueryStaticComplexityLimit_Success() throws IOException {
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query("{viewer{ id, name }}")
+                        .maxQueryComplexity(2)
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 1);
+        Assert.assertTrue(result.getErrors().get(0) instanceof QueryComplexityLimitExceededError);
+        Assert.assertNull(result.getData());
+        Assert.assertEquals(3.0, result.getComplexity(), 0.0);
+    }
+
+    @Test
+    public void viewerQueryStaticDepthLimit_Success() throws IOException {
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query("{viewer{ id, todos{ edges{ node{ id }}}}}")
+                        .maxQueryDepth(2)
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 1);
+        Assert.assertTrue(result.getErrors().get(0) instanceof QueryDepthLimitExceededError);
+        Assert.assertNull(result.getData());
+
+        result = GraphQLQueryExecutor
+                .create(graphQLSchemaHolder)
+                .query("{viewer{ id, name }}")
+                .maxQueryDepth(1)
+                .execute();
+        Assert.assertTrue(result.getErrors().size() == 0);
+    }
+
+    @Test
+    public void complexityExpressionEvaluation_Success() throws IOException {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("first", 3);
+
+        Assert.assertEquals(7.0, new GraphQLFieldDefinitionWrapper(null, "1 + #first * #childScore").evaluateComplexity(2.0, arguments), 0.0);
+        Assert.assertEquals(1.0, new GraphQLFieldDefinitionWrapper(null, "#first / 2").evaluateComplexity(2.0, arguments), 0.0);
+        Assert.assertEquals(-4.0, new GraphQLFieldDefinitionWrapper(null, "-(#first + 1.0) * (#childScore - 1)").evaluateComplexity(2.0, arguments), 0.0);
+        // enough evaluations for the SpEL compiler to kick in
+        GraphQLFieldDefinitionWrapper wrapper = new GraphQLFieldDefinitionWrapper(null, "T(Math).max(#first, 2) + #childScore");
+        for (int i = 0; i < 300; i++)
+            Assert.assertEquals(5.0, wrapper.evaluateComplexity(2.0, arguments), 0.0);
+    }
+
+    @Test
+    public void viewerDataFetcherMethodHandle_Success() throws IOException {
+        DataFetcher dataFetcher = graphQLSchemaHolder.getGraphQLSchema().getQueryType().getFieldDefinition("viewer").getDataFetcher();
+        Assert.assertTrue(dataFetcher instanceof ReflectionGraphQLDataFetcher);
+        Assert.assertTrue(((ReflectionGraphQLDataFetcher) dataFetcher).getMethodInvoker().isMethodHandleInvoker());
+    }
+
     @Test
     public void viewerQueryEstimateComplexity_Success() throws IOException {
         GraphQLRxExecutionResult result =
@@ -367,4 +624,329 @@ public class GenericTodoSchemaParserTest {
         LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
     }
 
+    @Test
+    public void viewerColleaguesBatchLoading_Success() throws IOException {
+        String query = "{viewer {colleagues(count: 6) {id teamLead {id name}}}}";
+
+        for (boolean concurrent : new boolean[]{false, true}) {
+            TEAM_LEAD_BATCHES.clear();
+            GraphQLQueryExecutor queryExecutor = GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query);
+            if (concurrent)
+                queryExecutor.forkJoinExecutorService();
+            GraphQLRxExecutionResult result = queryExecutor.execute();
+
+            Assert.assertTrue(result.getErrors().size() == 0);
+            Assert.assertEquals(1, TEAM_LEAD_BATCHES.size());
+            Assert.assertEquals(2, TEAM_LEAD_BATCHES.get(0).size());
+
+            List<Map<String, Object>> colleagues = (List<Map<String, Object>>) ((Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer")).get("colleagues");
+            Assert.assertEquals(6, colleagues.size());
+            for (Map<String, Object> colleague : colleagues) {
+                Map<String, Object> teamLead = (Map<String, Object>) colleague.get("teamLead");
+                Assert.assertEquals("Lead " + teamLead.get("id"), teamLead.get("name"));
+            }
+            Assert.assertEquals("user:id:colleague:0", colleagues.get(0).get("id"));
+            LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+        }
+    }
+
+    @Test
+    public void viewerMemoizedField_Success() throws IOException {
+        String query = "{viewer {managers: getAllUsersByRole(role: MANAGER) {id} " +
+                "sameManagers: getAllUsersByRole(role: MANAGER) {name} " +
+                "admins: getAllUsersByRole(role: ADMIN) {id}}}";
+
+        ALL_USERS_BY_ROLE_CALLS.set(0);
+        for (int i = 0; i < 2; i++) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .query(query)
+                            .execute();
+
+            Assert.assertTrue(result.getErrors().size() == 0);
+            Map<String, Object> viewer = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer");
+            Assert.assertEquals(1, ((List<?>) viewer.get("sameManagers")).size());
+            LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+        }
+
+        // identical calls are memoized within an execution only
+        Assert.assertEquals(4, ALL_USERS_BY_ROLE_CALLS.get());
+    }
+
+    @Test
+    public void eventFieldResultCache_Success() throws IOException, InterruptedException {
+        GraphQLFieldResultCache fieldResultCache = graphQLSchemaHolder.getFieldResultCacheMap().get("Root.event");
+        Assert.assertNotNull(fieldResultCache);
+        long hitCount = fieldResultCache.getHitCount();
+        long missCount = fieldResultCache.getMissCount();
+
+        Object firstEvent = null;
+        for (int i = 0; i < 2; i++) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .query("{event(id: 424242)}")
+                            .execute();
+
+            Assert.assertTrue(result.getErrors().size() == 0);
+            Object event = ((Map<String, Object>) result.getData()).get("event");
+            if (firstEvent == null)
+                firstEvent = event;
+            Assert.assertEquals(firstEvent, event);
+            Thread.sleep(5);
+        }
+
+        Assert.assertEquals(hitCount + 1, fieldResultCache.getHitCount());
+        Assert.assertEquals(missCount + 1, fieldResultCache.getMissCount());
+    }
+
+    @Test
+    public void eventLabelFieldResultCache_Success() throws IOException {
+        EVENT_LABEL_CALLS.set(0);
+        for (int i = 0; i < 3; i++) {
+            GraphQLRxExecutionResult result =
+                    GraphQLQueryExecutor
+                            .create(graphQLSchemaHolder)
+                            .query("{eventLabel(id: 424242)}")
+                            .execute();
+
+            // failure is not cached, null result is
+            Assert.assertEquals(i == 0 ? 1 : 0, result.getErrors().size());
+            Assert.assertNull(((Map<String, Object>) result.getData()).get("eventLabel"));
+        }
+
+        Assert.assertEquals(2, EVENT_LABEL_CALLS.get());
+    }
+
+    @Test
+    public void viewerColleaguesScheduler_Success() throws IOException {
+        String query = "{viewer {id name colleagues(count: 4) {id name teamLead {id name manager {id name}}}}}";
+
+        GraphQLRxExecutionResult expected = GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query).execute();
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .scheduler(Schedulers.computation())
+                        .query(query)
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Assert.assertEquals(expected.getData(), result.getData());
+        Assert.assertEquals(expected.getComplexity(), result.getComplexity());
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+    }
+
+    @Test
+    public void viewerExecuteAsync_Success() throws IOException {
+        String query = "{viewer {managers: getAllUsersByRole(role: MANAGER) {id} admins: getAllUsersByRole(role: ADMIN) {id}}}";
+
+        ALL_USERS_BY_ROLE_CALLS.set(0);
+        Observable<ExecutionResult> resultObservable =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .scheduler(Schedulers.io())
+                        .query(query)
+                        .executeAsync();
+        // cold: nothing is executed before subscription
+        Assert.assertEquals(0, ALL_USERS_BY_ROLE_CALLS.get());
+
+        GraphQLRxExecutionResult result = (GraphQLRxExecutionResult) resultObservable.toBlocking().single();
+        Assert.assertEquals(2, ALL_USERS_BY_ROLE_CALLS.get());
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Map<String, Object> viewer = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer");
+        Assert.assertEquals(1, ((List<?>) viewer.get("admins")).size());
+        Assert.assertEquals(5.0, result.getComplexity(), 0.0);
+
+        result = (GraphQLRxExecutionResult) resultObservable.toBlocking().single();
+        Assert.assertEquals(4, ALL_USERS_BY_ROLE_CALLS.get());
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+
+        // even a query which fails to parse is not handled by the subscribing thread, also without a scheduler
+        Thread subscribingThread = Thread.currentThread();
+        Thread executingThread = GraphQLQueryExecutor
+                .create(graphQLSchemaHolder)
+                .query("{viewer {id")
+                .executeAsync()
+                .map(invalidResult -> Thread.currentThread())
+                .toBlocking()
+                .single();
+        Assert.assertNotSame(subscribingThread, executingThread);
+    }
+
+    @Test
+    public void viewerFieldsSelectionOrder_Success() throws IOException {
+        List<String> selectionOrder = Arrays.asList("updated", "role", "name", "id", "manager");
+        String query = "{viewer {" + String.join(" ", selectionOrder.subList(0, 4)) + " manager {role id name}}}";
+
+        for (boolean concurrent : new boolean[]{false, true}) {
+            GraphQLQueryExecutor queryExecutor = GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query);
+            if (concurrent)
+                queryExecutor.forkJoinExecutorService();
+            GraphQLRxExecutionResult result = queryExecutor.execute();
+
+            Assert.assertTrue(result.getErrors().size() == 0);
+            Map<String, Object> viewer = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer");
+            Assert.assertEquals(selectionOrder, new ArrayList<>(viewer.keySet()));
+            Assert.assertEquals(Arrays.asList("role", "id", "name"), new ArrayList<>(((Map<String, Object>) viewer.get("manager")).keySet()));
+        }
+    }
+
+    @Test
+    public void viewerResolvedLeaves_Success() throws IOException {
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query("{viewer {id name role manager {id name role}}}")
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Map<String, Object> viewer = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer");
+        Map<String, Object> manager = (Map<String, Object>) viewer.get("manager");
+        Assert.assertTrue(viewer.get("role") instanceof String);
+        Assert.assertTrue(manager.get("name") instanceof String);
+        // same score as before leaves were completed synchronously
+        Assert.assertEquals(8.0, result.getComplexity(), 0.0);
+        LOGGER.info("Complexity: {}. Result: {}", result.getComplexity(), prettifyPrint(result.getData()));
+    }
+
+    @Test
+    public void viewerLargeColleaguesList_Success() throws IOException {
+        int count = 50000;
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query("{viewer {colleagues(count: " + count + ") {id name}}}")
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        List<Map<String, Object>> colleagues = (List<Map<String, Object>>) ((Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer")).get("colleagues");
+        Assert.assertEquals(count, colleagues.size());
+        for (int i = 0; i < count; i++)
+            Assert.assertEquals("Colleague " + i, colleagues.get(i).get("name"));
+        Assert.assertEquals(2.0 * count + 2, result.getComplexity(), 0.0);
+
+        // pending elements (batch loaded team leads) keep their position too
+        result = GraphQLQueryExecutor
+                .create(graphQLSchemaHolder)
+                .query("{viewer {colleagues(count: 100) {name teamLead {id}}}}")
+                .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        colleagues = (List<Map<String, Object>>) ((Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer")).get("colleagues");
+        Assert.assertEquals(100, colleagues.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("Colleague " + i, colleagues.get(i).get("name"));
+            Assert.assertNotNull(((Map<String, Object>) colleagues.get(i).get("teamLead")).get("id"));
+        }
+        Assert.assertEquals(3.0 * 100 + 2, result.getComplexity(), 0.0);
+    }
+
+    @Test
+    public void viewerColleaguesParallelList_Success() throws IOException {
+        String query = "{viewer {colleagues(count: 2000) {id name teamLead {id name}}}}";
+
+        GraphQLRxExecutionResult expected = GraphQLQueryExecutor.create(graphQLSchemaHolder).query(query).execute();
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .forkJoinExecutorService()
+                        .parallelListThreshold(200)
+                        .query(query)
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Assert.assertEquals(expected.getData(), result.getData());
+        Assert.assertEquals(expected.getComplexity(), result.getComplexity());
+    }
+
+    @Test
+    public void viewerResponseWriter_Success() throws IOException {
+        GraphQLResponseWriter responseWriter = new GraphQLResponseWriter(mapper);
+        GraphQLRxExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query("{viewer {id name role updated colleagues(count: 3) {id name teamLead {id}}}}")
+                        .execute();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        responseWriter.write(result, outputStream);
+
+        Map<String, Object> response = mapper.readValue(outputStream.toByteArray(), Map.class);
+        Assert.assertFalse(response.containsKey("errors"));
+        Assert.assertEquals(mapper.readValue(mapper.writeValueAsBytes(result.getData()), Map.class), response.get("data"));
+
+        outputStream.reset();
+        responseWriter.write(GraphQLQueryExecutor.create(graphQLSchemaHolder).query("{viewer {unknownField}}").execute(), outputStream);
+
+        response = mapper.readValue(outputStream.toByteArray(), Map.class);
+        Assert.assertNull(response.get("data"));
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+        Assert.assertEquals(1, errors.size());
+        Assert.assertNotNull(errors.get(0).get("message"));
+        LOGGER.info("Response: {}", new String(outputStream.toByteArray(), Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void viewerDeferAndStream_Success() throws IOException {
+        String query = "{viewer {id ...ViewerManager @defer colleagues(count: 4) @stream(initialCount: 1) {id name ... on User @defer {teamLead {id}}}}}" +
+                " fragment ViewerManager on User {manager {id name}}";
+
+        GraphQLIncrementalExecutionResult result =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query(query)
+                        .execute();
+
+        Assert.assertTrue(result.getErrors().size() == 0);
+        Map<String, Object> viewer = (Map<String, Object>) ((Map<String, Object>) result.getData()).get("viewer");
+        Assert.assertEquals(Arrays.asList("id", "colleagues"), new ArrayList<>(viewer.keySet()));
+        List<Map<String, Object>> colleagues = (List<Map<String, Object>>) viewer.get("colleagues");
+        Assert.assertEquals(1, colleagues.size());
+        Assert.assertFalse(colleagues.get(0).containsKey("teamLead"));
+
+        List<GraphQLExecutionPatch> patches = result.getPatchesObservable().toList().toBlocking().single();
+        Map<List<Object>, List<Object>> patchData = new HashMap<>();
+        for (GraphQLExecutionPatch patch : patches) {
+            Assert.assertTrue(patch.getErrors().isEmpty());
+            patchData.computeIfAbsent(patch.getPath(), path -> new ArrayList<>()).add(patch.getData());
+        }
+        // manager, three streamed colleagues and four deferred team leads
+        Assert.assertEquals(8, patches.size());
+        Assert.assertNotNull(((Map<String, Object>) patchData.get(Arrays.asList("viewer")).get(0)).get("manager"));
+        for (int i = 1; i < 4; i++) {
+            Map<String, Object> colleague = (Map<String, Object>) patchData.get(Arrays.asList("viewer", "colleagues", i)).get(0);
+            Assert.assertEquals("Colleague " + i, colleague.get("name"));
+        }
+        for (int i = 0; i < 4; i++)
+            Assert.assertNotNull(((Map<String, Object>) patchData.get(Arrays.asList("viewer", "colleagues", i)).get(i == 0 ? 0 : 1)).get("teamLead"));
+
+        // initial payload is followed by all patches, patches are replayed
+        Assert.assertEquals(9, result.toIncrementalObservable().toList().toBlocking().single().size());
+    }
+
+    @Test
+    public void todoUpdatedSubscription_Success() throws IOException {
+        Observable<ExecutionResult> subscription =
+                GraphQLQueryExecutor
+                        .create(graphQLSchemaHolder)
+                        .query("{updates: todoUpdated(count: 3) {id text}}")
+                        .subscribe();
+
+        List<ExecutionResult> results = subscription.toList().toBlocking().single();
+        Assert.assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertTrue(results.get(i).getErrors().isEmpty());
+            Map<String, Object> todo = (Map<String, Object>) ((Map<String, Object>) results.get(i).getData()).get("updates");
+            Assert.assertEquals("Updated todo " + (i + 1), todo.get("text"));
+        }
+
+        // subscription is validated against subscription root and selects a single root field
+        ExecutionResult invalidResult = GraphQLQueryExecutor.create(graphQLSchemaHolder).query("{viewer {id}}").subscribe().toBlocking().single();
+        Assert.assertEquals(1, invalidResult.getErrors().size());
+        ExecutionResult multipleFieldsResult = GraphQLQueryExecutor.create(graphQLSchemaHolder)
+                .query("{a: todoUpdated(count: 1) {id} b: todoUpdated(count: 1) {id}}").subscribe().toBlocking().single();
+        Assert.assertTrue(multipleFieldsResult.getErrors().get(0) instanceof SubscriptionRootFieldsError);
+    }
+
 }
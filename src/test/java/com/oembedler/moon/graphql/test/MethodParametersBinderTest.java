@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 oEmbedler Inc. and Contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ *  rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ *  persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.oembedler.moon.graphql.test;
+
+import com.oembedler.moon.graphql.engine.MethodParametersBinder;
+import com.oembedler.moon.graphql.engine.stereotype.GraphQLIn;
+import graphql.schema.DataFetchingEnvironment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
+ */
+public class MethodParametersBinderTest {
+
+    public static class Source {
+    }
+
+    public static class Context {
+    }
+
+    public static class Filter {
+        private String name;
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class Resolver {
+        public String resolve(@GraphQLIn("count") Long count,
+                              @GraphQLIn("filter") Filter filter,
+                              @GraphQLIn("ids") List<String> ids,
+                              DataFetchingEnvironment environment,
+                              Source source,
+                              Context context) {
+            return null;
+        }
+    }
+
+    private MethodParametersBinder createBinder() throws NoSuchMethodException {
+        Method method = Resolver.class.getMethod("resolve", Long.class, Filter.class, List.class,
+                DataFetchingEnvironment.class, Source.class, Context.class);
+        return new MethodParametersBinder(method, Resolver.class);
+    }
+
+    @Test
+    public void bindParameters_Success() throws NoSuchMethodException {
+        MethodParametersBinder binder = createBinder();
+
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("name", "todo");
+        filter.put("tags", Arrays.asList("a", "b"));
+        filter.put("unknown", "ignored");
+        List<String> ids = Arrays.asList("1", "2");
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("count", 5);
+        arguments.put("filter", filter);
+        arguments.put("ids", ids);
+
+        Source source = new Source();
+        Context context = new Context();
+        DataFetchingEnvironment environment = new DataFetchingEnvironment(source, arguments, context, null, null, null, null);
+
+        for (int i = 0; i < 2; i++) {
+            Object[] args = binder.bindParameters(arguments, new Object[]{environment, source, context});
+            Assert.assertEquals(6, args.length);
+            // argument is converted to parameter type
+            Assert.assertEquals(5L, args[0]);
+            Filter boundFilter = (Filter) args[1];
+            Assert.assertEquals("todo", boundFilter.getName());
+            Assert.assertEquals(Arrays.asList("a", "b"), boundFilter.getTags());
+            // value already having parameter type is passed through
+            Assert.assertSame(ids, args[2]);
+            Assert.assertSame(environment, args[3]);
+            Assert.assertSame(source, args[4]);
+            Assert.assertSame(context, args[5]);
+        }
+    }
+
+    @Test
+    public void bindMissingParameters_Success() throws NoSuchMethodException {
+        MethodParametersBinder binder = createBinder();
+
+        Object[] args = binder.bindParameters(Collections.emptyMap());
+        Assert.assertEquals(6, args.length);
+        Assert.assertTrue(Arrays.stream(args).allMatch(arg -> arg == null));
+
+        // by-class values are matched by type, not by position
+        Context context = new Context();
+        args = binder.bindParameters(Collections.emptyMap(), new Object[]{null, null, context});
+        Assert.assertNull(args[3]);
+        Assert.assertNull(args[4]);
+        Assert.assertSame(context, args[5]);
+    }
+}
@@ -19,7 +19,16 @@
 
 package com.oembedler.moon.graphql.test.simpleschema;
 
+import com.oembedler.moon.graphql.engine.execute.GraphQLDeadline;
 import com.oembedler.moon.graphql.engine.stereotype.*;
+import graphql.schema.DataFetchingEnvironment;
+import rx.Observable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
@@ -28,6 +37,13 @@ import com.oembedler.moon.graphql.engine.stereotype.*;
 public class ComputationDelaySchema {
 
     private static final long DELAY_MS = 2000;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "computation-delay-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static final AtomicBoolean TIMED_RX_NAME_UNSUBSCRIBED = new AtomicBoolean();
 
     @GraphQLSchemaQuery
     private QueryType queryType;
@@ -79,6 +95,21 @@ public class ComputationDelaySchema {
         }
     }
 
+    @GraphQLObject
+    public static class FailingMarker {
+
+        @GraphQLField("name")
+        public String getName() {
+            return "failing";
+        }
+
+        @GraphQLNonNull
+        @GraphQLField("required")
+        public String getRequired() {
+            throw new IllegalStateException("Required value is not available");
+        }
+    }
+
     @GraphQLObject
     public static class QueryType {
 
@@ -100,6 +131,55 @@ public class ComputationDelaySchema {
             return null;
         }
 
+        // non-blocking counterparts: delay is scheduled, no thread is pinned while waiting
+
+        @GraphQLField
+        public CompletableFuture<ColorMarker> asyncColor(@GraphQLIn("id") String id) {
+            CompletableFuture<ColorMarker> future = new CompletableFuture<>();
+            SCHEDULER.schedule(() -> {
+                ColorMarker colorMarker = new ColorMarker();
+                colorMarker.setName("color-" + id);
+                future.complete(colorMarker);
+            }, DELAY_MS, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        @GraphQLField
+        public Observable<String> rxName(@GraphQLIn("id") String id) {
+            return Observable.just("rx-" + id).delay(DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+
+        // timed out stream is unsubscribed
+
+        @GraphQLField
+        @GraphQLTimeout(200)
+        public Observable<String> timedRxName(@GraphQLIn("id") String id) {
+            return Observable.just("rx-" + id).delay(DELAY_MS, TimeUnit.MILLISECONDS)
+                    .doOnUnsubscribe(() -> TIMED_RX_NAME_UNSUBSCRIBED.set(true));
+        }
+
+        @GraphQLField
+        public Long remainingMillis(DataFetchingEnvironment environment) {
+            return GraphQLDeadline.from(environment).getRemaining(TimeUnit.MILLISECONDS);
+        }
+
+        // failures are reported per field, the rest of the response is still resolved
+
+        @GraphQLField
+        public String failingName(@GraphQLIn("id") String id) {
+            throw new IllegalStateException("Name of [" + id + "] is not available");
+        }
+
+        @GraphQLField
+        public Observable<String> rxFailingName(@GraphQLIn("id") String id) {
+            return Observable.error(new IllegalStateException("Name of [" + id + "] is not available"));
+        }
+
+        @GraphQLField
+        public FailingMarker failing() {
+            return new FailingMarker();
+        }
+
     }
 }
 
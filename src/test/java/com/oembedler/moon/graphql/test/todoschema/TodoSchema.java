@@ -21,6 +21,7 @@ package com.oembedler.moon.graphql.test.todoschema;
 
 import com.oembedler.moon.graphql.engine.stereotype.*;
 import com.oembedler.moon.graphql.test.todoschema.objecttype.RootObjectType;
+import com.oembedler.moon.graphql.test.todoschema.objecttype.SubscriptionObjectType;
 import com.oembedler.moon.graphql.test.todoschema.objecttype.TodoObjectType;
 
 import java.util.Date;
@@ -31,6 +32,9 @@ public class TodoSchema {
     @GraphQLSchemaQuery
     private RootObjectType root;
 
+    @GraphQLSubscription
+    private SubscriptionObjectType subscription;
+
     public static class AddTodoIn {
         private String text;
 
@@ -21,8 +21,10 @@ package com.oembedler.moon.graphql.test.todoschema.objecttype;
 
 import com.oembedler.moon.graphql.engine.relay.RelayNode;
 import com.oembedler.moon.graphql.engine.stereotype.*;
+import com.oembedler.moon.graphql.test.GenericTodoSchemaParserTest;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
@@ -46,10 +48,20 @@ public class RootObjectType {
     }
 
     @GraphQLField
+    @GraphQLCached(ttl = 5, timeUnit = TimeUnit.MINUTES, maxSize = 16)
     public long event(@GraphQLNonNull @GraphQLIn(value = "id") final Long event) {
         return new Date().getTime();
     }
 
+    @GraphQLField
+    @GraphQLCached(ttl = 5, timeUnit = TimeUnit.MINUTES, maxSize = 16)
+    public String eventLabel(@GraphQLNonNull @GraphQLIn(value = "id") final Long event) {
+        // first call fails, label is not known afterwards
+        if (GenericTodoSchemaParserTest.EVENT_LABEL_CALLS.incrementAndGet() == 1)
+            throw new IllegalStateException("Event label is not available yet");
+        return null;
+    }
+
     @GraphQLField
     public RelayNode node(@GraphQLID @GraphQLNonNull @GraphQLIn(value = "id") final String id) {
         /** data fetcher goes here **/
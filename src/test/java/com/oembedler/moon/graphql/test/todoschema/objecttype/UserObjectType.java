@@ -21,13 +21,18 @@ package com.oembedler.moon.graphql.test.todoschema.objecttype;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.oembedler.moon.graphql.engine.execute.GraphQLRequestScope;
 import com.oembedler.moon.graphql.engine.stereotype.*;
 import com.oembedler.moon.graphql.test.GenericTodoSchemaParserTest;
+import graphql.schema.DataFetchingEnvironment;
+import rx.Observable;
 
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author <a href="mailto:java.lang.RuntimeException@gmail.com">oEmbedler Inc.</a>
@@ -81,8 +86,10 @@ public class UserObjectType extends BaseObjectType {
         return userManagerObjectType;
     }
 
+    @GraphQLMemoized
     @GraphQLField("getAllUsersByRole")
     public List<UserObjectType> getAllUsersByRole(UserObjectType employee, @GraphQLIn("role") ROLE role) {
+        GenericTodoSchemaParserTest.ALL_USERS_BY_ROLE_CALLS.incrementAndGet();
         UserObjectType userManagerObjectType = new UserObjectType();
         userManagerObjectType.setId("user:id:manager:000001");
         userManagerObjectType.setName("Adam Smith");
@@ -92,6 +99,27 @@ public class UserObjectType extends BaseObjectType {
         return Lists.newArrayList(userManagerObjectType);
     }
 
+    @GraphQLField("colleagues")
+    public List<UserObjectType> getColleagues(UserObjectType employee, @GraphQLIn("count") Integer count) {
+        return IntStream.range(0, count != null ? count : 0)
+                .mapToObj(idx -> {
+                    UserObjectType colleague = new UserObjectType();
+                    colleague.setId("user:id:colleague:" + idx);
+                    colleague.setName("Colleague " + idx);
+                    colleague.setRole(UserObjectType.ROLE.USER);
+                    return colleague;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @GraphQLField("teamLead")
+    public Observable<UserObjectType> getTeamLead(UserObjectType employee, DataFetchingEnvironment environment) {
+        String teamLeadId = "user:id:lead:" + (Math.abs(employee.getId(employee).hashCode()) % 2);
+        return GraphQLRequestScope.from(environment)
+                .getDataLoader(GenericTodoSchemaParserTest.TEAM_LEAD_BATCH_LOADER)
+                .load(teamLeadId);
+    }
+
     public Integer getFirstDefaultValue() {
         return 1;
     }